@@ -2,12 +2,29 @@ package com.jcarrey.reactor.poller.core;
 
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
+import com.jcarrey.reactor.poller.core.snapshot.ConcurrencySnapshot;
+import com.jcarrey.reactor.poller.core.snapshot.SnapshotParticipant;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposables;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
@@ -16,54 +33,355 @@ import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOper
 
 @Slf4j
 class AdaptativeConcurrencyControl<T> implements Consumer<FluxSink<T>> {
+    @Nullable
     private final Poller<T> poller;
-    private final ConcurrencyControlOptions<T> options;
+    @Nullable
+    private final AsyncPoller<T> asyncPoller;
+    private final PollerControl<T> pollerControl;
 
     private final AtomicReference<Double> currentConcurrency;
     private final AtomicLong pendingRequests = new AtomicLong(0);
+    private final AtomicLong requested = new AtomicLong(0);
+    private final AtomicLong emitted = new AtomicLong(0);
+    private final AtomicLong bufferedBytes = new AtomicLong(0);
+    private final AtomicBoolean pausedOnBytes = new AtomicBoolean(false);
+    private volatile FluxSink<T> sink;
     private final ReentrantLock concurrencyUpdateLock = new ReentrantLock();
+    private final Queue<PollSlot<T>> idleSlots = new ConcurrentLinkedQueue<>();
+    private final Queue<PollSlot<T>> slots = new ConcurrentLinkedQueue<>();
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+    private final AtomicInteger wip = new AtomicInteger(0);
+    private final Runnable dispatchTask = () -> dispatch(this.sink);
 
     public AdaptativeConcurrencyControl(Poller<T> poller, ConcurrencyControlOptions<T> options) {
+        this(poller, null, new PollerControl<>(options));
+    }
+
+    public AdaptativeConcurrencyControl(AsyncPoller<T> asyncPoller, ConcurrencyControlOptions<T> options) {
+        this(null, asyncPoller, new PollerControl<>(options));
+    }
+
+    public AdaptativeConcurrencyControl(Poller<T> poller, PollerControl<T> pollerControl) {
+        this(poller, null, pollerControl);
+    }
+
+    public AdaptativeConcurrencyControl(AsyncPoller<T> asyncPoller, PollerControl<T> pollerControl) {
+        this(null, asyncPoller, pollerControl);
+    }
+
+    private AdaptativeConcurrencyControl(@Nullable Poller<T> poller, @Nullable AsyncPoller<T> asyncPoller, PollerControl<T> pollerControl) {
         this.poller = poller;
-        this.options = options;
-        this.currentConcurrency = new AtomicReference(options.getInitialConcurrency());
+        this.asyncPoller = asyncPoller;
+        this.pollerControl = pollerControl;
+        this.currentConcurrency = new AtomicReference(pollerControl.options().getInitialConcurrency());
+    }
+
+    private ConcurrencyControlOptions<T> options() {
+        return pollerControl.options();
     }
 
     @Override
     public void accept(FluxSink<T> subscriber) {
-        subscriber.onRequest(requestCount -> this.onRequest(subscriber));
+        var options = options();
+        this.sink = subscriber;
+        // A sink keeps a single dispose callback, any other one is disposed right away
+        var onDispose = Disposables.composite();
+        if (options.getEmission().getMode() == EmissionStrategy.Mode.PinnedWorker) {
+            onDispose.add(this::disposeWorkers);
+        }
+        if (options.getSnapshot() != null) {
+            restoreSnapshot();
+            var interval = options.getSnapshot().getInterval().toMillis();
+            // Saving blocks on I/O
+            var periodicSave = Schedulers.boundedElastic()
+                    .schedulePeriodically(this::saveSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+            onDispose.add(() -> {
+                periodicSave.dispose();
+                saveSnapshot();
+            });
+        }
+        pollerControl.onDrain(drained, () -> abandon(subscriber));
+        var unregister = pollerControl.onChange(() -> this.onRequest(subscriber));
+        onDispose.add(unregister::run);
+        onDispose.add(() -> stopped(subscriber));
+        subscriber.onDispose(onDispose);
+        subscriber.onRequest(requestCount -> {
+            requested.getAndAccumulate(requestCount, Operators::addCap);
+            this.onRequest(subscriber);
+        });
+    }
+
+    double concurrency() {
+        return currentConcurrency.get();
+    }
+
+    long pendingRequests() {
+        return pendingRequests.get();
     }
 
     private void onRequest(FluxSink<T> subscriber) {
-        if (subscriber.isCancelled()) {
-            log.trace("Cancelled - No more consumption");
+        dispatch(subscriber);
+    }
+
+    /**
+     * Issues as many polls as allowed by the concurrency, the demand and the buffering policy. Polls completing
+     * while a dispatch is running, even synchronously within it, make it loop again instead of dispatching
+     * recursively.
+     */
+    private void dispatch(FluxSink<T> subscriber) {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        var missed = 1;
+        do {
+            drain(subscriber);
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Dispatches on a scheduler, for polls that got nothing, so a poller completing them synchronously
+     * does not poll in a loop on the dispatching thread
+     */
+    private void dispatchLater(FluxSink<T> subscriber) {
+        try {
+            Schedulers.parallel().schedule(dispatchTask);
+        } catch (RejectedExecutionException rejected) {
+            dispatch(subscriber);
+        }
+    }
+
+    private void drain(FluxSink<T> subscriber) {
+        if (subscriber.isCancelled() || pollerControl.draining()) {
+            log.trace("Cancelled or draining - No more consumption");
+            stopped(subscriber);
             return;
         }
 
-        var availableConcurrency = currentConcurrency.get() - pendingRequests.get();
-        var maxRequests = Math.min(subscriber.requestedFromDownstream(), availableConcurrency);
+        var concurrency = dispatchConcurrency();
+        if (PollerEvents.isSinkBacklogEnabled()) {
+            PollerEvents.sinkBacklog(bufferedElements(subscriber), subscriber.requestedFromDownstream(),
+                    pendingRequests.get(), concurrency);
+        }
+
+        var availableConcurrency = concurrency - pendingRequests.get();
+        var maxRequests = Math.min(Math.min(subscriber.requestedFromDownstream(), availableConcurrency), bufferCapacity(subscriber));
         for (int i = 0; i < maxRequests; i++) {
             if (subscriber.isCancelled()) {
                 break;
             }
 
-            pendingRequests.incrementAndGet();
-            poller.poll()
-                    // Move away from poller thread - whatever that is
-                    .onErrorStop()
-                    .doOnTerminate(pendingRequests::decrementAndGet)
-                    .doOnError(err -> this.onRequest(subscriber))
-                    .subscribe(el -> {
-                        if (!subscriber.isCancelled()) {
-                            this.adaptConcurrency(el);
-                            subscriber.next(el);
-                            this.onRequest(subscriber);
-                        }
-                    });
+            acquire().start(PollerEvents.beginPoll(pendingRequests.incrementAndGet()), poller, asyncPoller);
+        }
+    }
+
+    /**
+     * The pinned concurrency, or the current one, brought within the bounds in case they changed at runtime
+     */
+    private double dispatchConcurrency() {
+        var pinned = pollerControl.pinned();
+        if (pinned != null) {
+            return pinned;
+        }
+        var options = options();
+        while (true) {
+            var current = currentConcurrency.get();
+            var bounded = Math.min(Math.max(current, options.getMinConcurrency()), options.getMaxConcurrency());
+            if (bounded == current || currentConcurrency.compareAndSet(current, bounded)) {
+                return bounded;
+            }
+        }
+    }
+
+    void onPollComplete(PollSlot<T> slot, @Nullable T element) {
+        var subscriber = this.sink;
+        if (element == null) {
+            PollerEvents.endPoll(slot.takeEvent(), PollEvent.EMPTY);
+            release(slot);
+            pendingRequests.decrementAndGet();
+            dispatchLater(subscriber);
+            return;
+        }
+        if (subscriber.isCancelled() || pollerControl.draining()) {
+            PollerEvents.endPoll(slot.takeEvent(), PollEvent.DROPPED);
+            release(slot);
+            pendingRequests.decrementAndGet();
+            releaseElement(element);
+            dispatch(subscriber);
+            return;
+        }
+
+        PollerEvents.endPoll(slot.takeEvent(), PollEvent.SUCCESS);
+        release(slot);
+        pendingRequests.decrementAndGet();
+        this.adaptConcurrency(element);
+        emitted.incrementAndGet();
+        trackBufferedBytes(element);
+        subscriber.next(element);
+        dispatch(subscriber);
+    }
+
+    /**
+     * No more polls are issued, once the in-flight ones terminated, a draining subscription completes
+     */
+    private void stopped(FluxSink<T> subscriber) {
+        if (pendingRequests.get() == 0 && !drained.isDone()) {
+            if (!subscriber.isCancelled()) {
+                subscriber.complete();
+            }
+            drained.complete(null);
+        }
+    }
+
+    /**
+     * The drain deadline was reached with polls still in flight: completes without waiting for them, their results
+     * are released when they arrive as the subscription is draining
+     */
+    private void abandon(FluxSink<T> subscriber) {
+        if (!drained.isDone()) {
+            log.debug("Completing with {} polls in flight", pendingRequests.get());
+            if (!subscriber.isCancelled()) {
+                subscriber.complete();
+            }
+            drained.complete(null);
+        }
+    }
+
+    /**
+     * Hands an element that will not be emitted to the release option
+     */
+    void releaseElement(T element) {
+        pollerControl.release(element);
+    }
+
+    void onPollError(PollSlot<T> slot, Throwable error) {
+        PollerEvents.endPoll(slot.takeEvent(), PollEvent.ERROR);
+        release(slot);
+        pendingRequests.decrementAndGet();
+        log.debug("Poll failed, polling again.", error);
+        dispatchLater(this.sink);
+    }
+
+    boolean emitsImmediately() {
+        var options = options();
+        return options.getEmission().getMode() == EmissionStrategy.Mode.Immediate;
+    }
+
+    /**
+     * Handles the outcome of the slot on the emission scheduler
+     */
+    void emit(PollSlot<T> slot) {
+        var options = options();
+        var emission = options.getEmission();
+        try {
+            if (emission.getMode() == EmissionStrategy.Mode.PinnedWorker) {
+                slot.worker(emission.getScheduler()).schedule(slot);
+            } else {
+                emission.getScheduler().schedule(slot);
+            }
+        } catch (RejectedExecutionException rejected) {
+            // The scheduler or the worker is disposed, handle it here so accounting stays right
+            slot.run();
+        }
+    }
+
+    private PollSlot<T> acquire() {
+        var slot = idleSlots.poll();
+        if (slot == null) {
+            slot = new PollSlot<>(this);
+            slots.offer(slot);
+        }
+        return slot;
+    }
+
+    private void disposeWorkers() {
+        for (var slot : slots) {
+            var worker = slot.worker();
+            if (worker != null) {
+                worker.dispose();
+            }
+        }
+    }
+
+    private void release(PollSlot<T> slot) {
+        idleSlots.offer(slot);
+    }
+
+    /**
+     * Elements emitted into the sink which were not delivered downstream yet, based on
+     * the total requested amount and what is left of it.
+     */
+    private long bufferedElements(FluxSink<T> subscriber) {
+        var outstanding = subscriber.requestedFromDownstream();
+        var totalRequested = requested.get();
+        if (totalRequested == Long.MAX_VALUE) {
+            // Unbounded demand, elements are delivered as soon as they are emitted
+            return 0;
+        }
+        return Math.max(0, emitted.get() - (totalRequested - outstanding));
+    }
+
+    /**
+     * How many more polls can be issued without exceeding the buffering policy
+     */
+    private long bufferCapacity(FluxSink<T> subscriber) {
+        var options = options();
+        var buffering = options.getBuffering();
+        if (buffering == null) {
+            return Long.MAX_VALUE;
+        }
+
+        if (buffering.isBytesBounded() && bufferedBytes.get() >= buffering.getMaxBufferedBytes()) {
+            pausedOnBytes.set(true);
+            // Delivering an element may have released the buffer in between
+            if (bufferedBytes.get() >= buffering.getMaxBufferedBytes()) {
+                return 0;
+            }
+            pausedOnBytes.set(false);
+        }
+
+        if (buffering.getMaxBufferedElements() == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, buffering.getMaxBufferedElements() - bufferedElements(subscriber) - pendingRequests.get());
+    }
+
+    private void trackBufferedBytes(T element) {
+        var options = options();
+        var buffering = options.getBuffering();
+        if (buffering != null && buffering.isBytesBounded()) {
+            bufferedBytes.addAndGet(buffering.getSizeEstimator().applyAsLong(element));
+        }
+    }
+
+    /**
+     * Called when an element is delivered downstream, releases its bytes and resumes polling if it was paused on them.
+     */
+    void onDelivered(T element) {
+        var options = options();
+        bufferedBytes.addAndGet(-options.getBuffering().getSizeEstimator().applyAsLong(element));
+        var subscriber = this.sink;
+        if (pausedOnBytes.compareAndSet(true, false) && subscriber != null) {
+            this.onRequest(subscriber);
         }
     }
 
     private void adaptConcurrency(T element) {
+        var options = options();
+        if (options.getForecast() != null) {
+            options.getForecast().record(element);
+        }
+        if (pollerControl.pinned() != null) {
+            return;
+        }
+        if (options.getForecast() != null) {
+            raiseToFloor();
+        }
+        if (options.getController() != null) {
+            controlConcurrency(element);
+            return;
+        }
+
         var strategy = options.getStrategy();
         var operation = strategy.calculate(element);
         if (!isNoop(operation)) {
@@ -79,30 +397,100 @@ class AdaptativeConcurrencyControl<T> implements Consumer<FluxSink<T>> {
         }
     }
 
+    private void controlConcurrency(T element) {
+        var options = options();
+        if (options.getLockMechanism() == ConcurrencyLockMechanism.Pessimistic) {
+            concurrencyUpdateLock.lock();
+        }
+
+        try {
+            var current = currentConcurrency.get();
+            var min = minConcurrency();
+            var next = options.getController().calculate(current, min, options.getMaxConcurrency(), element);
+            next = Math.min(Math.max(next, min), options.getMaxConcurrency());
+            if (next > current && isSaturated(options)) {
+                next = Math.max(current, min);
+            }
+            if (log.isTraceEnabled()) {
+                log.trace("[concurrency-update current={}, next={}", current, next);
+            }
+            currentConcurrency.set(next);
+            if (next != current) {
+                PollerEvents.concurrencyChange(current, next, next > current ? ScaleUp : ScaleDown, options.getController());
+            }
+        } catch (Exception error) {
+            log.warn("Could not update concurrency.", error);
+        } finally {
+            if (options.getLockMechanism() == ConcurrencyLockMechanism.Pessimistic) {
+                concurrencyUpdateLock.unlock();
+            }
+        }
+    }
+
     private void tryAdaptConcurrencyWithPermit(ConcurrencyControlOperation operation) {
+        var options = options();
         try {
-            currentConcurrency.getAndUpdate(current -> {
+            while (true) {
+                var current = currentConcurrency.get();
                 if (isNoop(operation)) {
-                    return current;
+                    return;
                 }
 
                 var delta = operation == ScaleDown
                         ? -Math.abs(options.getScaleDownFn().calculateDelta(current, operation))
                         : Math.abs(options.getScaleUpFn().calculateDelta(current, operation));
                 var next = calculateNext(current, delta);
-                if (log.isTraceEnabled()) {
-                    log.trace("[concurrency-update current={}, next={}", current, next);
+                if (currentConcurrency.compareAndSet(current, next)) {
+                    if (log.isTraceEnabled()) {
+                        log.trace("[concurrency-update current={}, next={}", current, next);
+                    }
+                    PollerEvents.concurrencyChange(current, next, operation, options.getStrategy());
+                    return;
                 }
-                return next;
-            });
+            }
         } catch (Exception error) {
             log.warn("Could not update concurrency.", error);
         }
     }
 
+    /**
+     * Raises the concurrency up to the forecasted floor ahead of predicted bursts
+     */
+    private void raiseToFloor() {
+        var options = options();
+        while (true) {
+            var current = currentConcurrency.get();
+            var floor = minConcurrency();
+            if (current >= floor) {
+                return;
+            }
+            if (currentConcurrency.compareAndSet(current, floor)) {
+                if (log.isTraceEnabled()) {
+                    log.trace("[concurrency-update current={}, next={}", current, floor);
+                }
+                PollerEvents.concurrencyChange(current, floor, ScaleUp, options.getForecast());
+                return;
+            }
+        }
+    }
+
+    /**
+     * The minimum concurrency, raised by the forecast when there is one
+     */
+    private double minConcurrency() {
+        var options = options();
+        var forecast = options.getForecast();
+        if (forecast == null) {
+            return options.getMinConcurrency();
+        }
+        var floor = forecast.floor(options.getMinConcurrency(), options.getMaxConcurrency());
+        return Math.min(Math.max(floor, options.getMinConcurrency()), options.getMaxConcurrency());
+    }
+
     private double calculateNext(double current, double delta) {
+        var options = options();
         var max = options.getMaxConcurrency();
-        var min = options.getMinConcurrency();
+        var min = minConcurrency();
         if (delta == 0d) {
             return current;
         }
@@ -116,10 +504,68 @@ class AdaptativeConcurrencyControl<T> implements Consumer<FluxSink<T>> {
         return Math.min(Math.max(current + delta, min), max);
     }
 
+    private void restoreSnapshot() {
+        var options = options();
+        var snapshotOptions = options.getSnapshot();
+        try {
+            snapshotOptions.getStore().load().ifPresent(snapshot -> {
+                var resumed = snapshotOptions.resumeConcurrency(snapshot, options.getInitialConcurrency(),
+                        options.getMinConcurrency(), options.getMaxConcurrency());
+                log.debug("Resuming from snapshot concurrency={}, updatedAt={}, resumed={}",
+                        snapshot.concurrency(), snapshot.updatedAt(), resumed);
+                currentConcurrency.set(resumed);
+                forEachParticipant((prefix, participant) -> participant.restore(withoutPrefix(prefix, snapshot.stats())));
+            });
+        } catch (Exception error) {
+            log.warn("Could not restore concurrency snapshot.", error);
+        }
+    }
+
+    private void saveSnapshot() {
+        var options = options();
+        var snapshotOptions = options.getSnapshot();
+        try {
+            var stats = new HashMap<String, Double>();
+            forEachParticipant((prefix, participant) -> participant.stats().forEach((key, value) -> stats.put(prefix + key, value)));
+            snapshotOptions.getStore().save(new ConcurrencySnapshot(currentConcurrency.get(), stats, Instant.now(snapshotOptions.getClock())));
+        } catch (Exception error) {
+            log.warn("Could not save concurrency snapshot.", error);
+        }
+    }
+
+    private void forEachParticipant(BiConsumer<String, SnapshotParticipant> action) {
+        var options = options();
+        if (options.getStrategy() instanceof SnapshotParticipant participant) {
+            action.accept("strategy.", participant);
+        }
+        if (options.getController() instanceof SnapshotParticipant participant) {
+            action.accept("controller.", participant);
+        }
+        if (options.getForecast() instanceof SnapshotParticipant participant) {
+            action.accept("forecast.", participant);
+        }
+    }
+
+    private static Map<String, Double> withoutPrefix(String prefix, Map<String, Double> stats) {
+        var result = new HashMap<String, Double>();
+        stats.forEach((key, value) -> {
+            if (key.startsWith(prefix)) {
+                result.put(key.substring(prefix.length()), value);
+            }
+        });
+        return result;
+    }
+
     private boolean isNoop(ConcurrencyControlOperation operation) {
+        var options = options();
         if (operation == Noop) return true;
         var concurrency = currentConcurrency.get();
-        return operation == ScaleUp && concurrency == options.getMaxConcurrency()
-             || operation == ScaleDown && concurrency == options.getMinConcurrency();
+        return operation == ScaleUp && (concurrency == options.getMaxConcurrency() || isSaturated(options))
+             || operation == ScaleDown && concurrency <= minConcurrency();
+    }
+
+    private static boolean isSaturated(ConcurrencyControlOptions<?> options) {
+        var saturated = options.getSaturated();
+        return saturated != null && saturated.getAsBoolean();
     }
 }
@@ -0,0 +1,29 @@
+package com.jcarrey.reactor.poller.core;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Callback based alternative to {@link Poller}, for sources that are already asynchronous (i.e: return a
+ * {@link java.util.concurrent.CompletableFuture}), so no Reactor operators are assembled or subscribed per poll.
+ * The callback instances are reused across polls by the adaptative poller.
+ */
+@FunctionalInterface
+public interface AsyncPoller<T> {
+    /**
+     * Starts a poll, which must eventually invoke the callback exactly once.
+     * @param callback Receives the outcome of the poll, it can be passed directly to
+     *                 {@link java.util.concurrent.CompletableFuture#whenComplete}
+     */
+    void poll(PollCallback<T> callback);
+
+    /**
+     * Adapts a source returning CompletionStages
+     * @param poll Starts a poll, a null value on completion means that nothing was polled
+     * @param <T> The type of the elements being polled
+     * @return An AsyncPoller completing the callback with the CompletionStage outcome
+     */
+    static <T> AsyncPoller<T> fromCompletionStage(Supplier<? extends CompletionStage<T>> poll) {
+        return callback -> poll.get().whenComplete(callback);
+    }
+}
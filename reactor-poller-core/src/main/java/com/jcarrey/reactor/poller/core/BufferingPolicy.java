@@ -0,0 +1,59 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.Builder;
+import lombok.Getter;
+import reactor.util.annotation.Nullable;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounds the elements that may pile up in the sink when downstream does not keep up with in-flight polls.
+ * When a limit is reached, no new polls are issued until downstream consumes the buffered elements,
+ * so there is no need to drop or error on overflow.
+ */
+@Getter
+public class BufferingPolicy<T> {
+    /**
+     * Maximum elements buffered in the sink plus polls in flight, as each in-flight poll may end up buffered.
+     */
+    private final long maxBufferedElements;
+    /**
+     * Maximum estimated bytes of the elements buffered in the sink. Polls are paused once reached,
+     * as the size of in-flight polls is not known beforehand.
+     */
+    private final long maxBufferedBytes;
+    /**
+     * Estimated size in bytes of an element, required when maxBufferedBytes is set.
+     * It must return the same value every time it is called for the same element.
+     */
+    @Nullable
+    private final ToLongFunction<T> sizeEstimator;
+
+    @Builder
+    public BufferingPolicy(@Nullable Long maxBufferedElements, @Nullable Long maxBufferedBytes, @Nullable ToLongFunction<T> sizeEstimator) {
+        if (maxBufferedElements != null && maxBufferedElements < 1) {
+            throw new IllegalArgumentException("maxBufferedElements must be >= 1");
+        }
+        if (maxBufferedBytes != null && maxBufferedBytes < 1) {
+            throw new IllegalArgumentException("maxBufferedBytes must be >= 1");
+        }
+        if (maxBufferedBytes != null && sizeEstimator == null) {
+            throw new IllegalArgumentException("sizeEstimator is required with maxBufferedBytes");
+        }
+        this.maxBufferedElements = maxBufferedElements == null ? Long.MAX_VALUE : maxBufferedElements;
+        this.maxBufferedBytes = maxBufferedBytes == null ? Long.MAX_VALUE : maxBufferedBytes;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    boolean isBytesBounded() {
+        return maxBufferedBytes != Long.MAX_VALUE;
+    }
+
+    BufferingPolicy<T> split(int rails) {
+        return new BufferingPolicy<>(
+                maxBufferedElements == Long.MAX_VALUE ? null : Math.max(1L, maxBufferedElements / rails),
+                isBytesBounded() ? Math.max(1L, maxBufferedBytes / rails) : null,
+                sizeEstimator
+        );
+    }
+}
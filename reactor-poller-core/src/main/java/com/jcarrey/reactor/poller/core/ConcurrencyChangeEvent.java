@@ -0,0 +1,26 @@
+package com.jcarrey.reactor.poller.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcarrey.reactor.poller.ConcurrencyChange")
+@Label("Concurrency Change")
+@Category("Reactor Poller")
+@Description("The concurrency of an adaptative poller was updated")
+class ConcurrencyChangeEvent extends Event {
+    @Label("From")
+    double from;
+
+    @Label("To")
+    double to;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Trigger")
+    @Description("The strategy or controller that caused the change")
+    Class<?> trigger;
+}
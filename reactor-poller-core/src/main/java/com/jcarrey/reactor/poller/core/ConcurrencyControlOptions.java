@@ -3,15 +3,20 @@ package com.jcarrey.reactor.poller.core;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunction;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunctions;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyController;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyForecast;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
+import com.jcarrey.reactor.poller.core.snapshot.ConcurrencySnapshotOptions;
 import lombok.Builder;
 import lombok.Getter;
 import reactor.util.annotation.Nullable;
 
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class ConcurrencyControlOptions<T> {
     /**
      * How many concurrent polls may happen at a given time based on the
@@ -53,6 +58,51 @@ public class ConcurrencyControlOptions<T> {
      * as all pollers received a response that triggers a scale up event.
      */
     private final ConcurrencyLockMechanism lockMechanism;
+    /**
+     * Closed-loop controller that calculates the next concurrency out of each poll response, i.e: a
+     * {@link com.jcarrey.reactor.poller.core.concurrency.PidConcurrencyController}.
+     * When set, it takes precedence over strategy, scaleUpFn and scaleDownFn.
+     */
+    @Nullable
+    private final ConcurrencyController<T> controller;
+    /**
+     * Where to save and restore the learned concurrency, so restarts resume from it instead of initialConcurrency.
+     * Disabled when not set.
+     */
+    @Nullable
+    private final ConcurrencySnapshotOptions snapshot;
+    /**
+     * Limits for the elements buffered in the sink while downstream is not consuming them, polling pauses when reached.
+     * Unbounded when not set, only bounded by the demand from downstream and the concurrency.
+     */
+    @Nullable
+    private final BufferingPolicy<T> buffering;
+    /**
+     * On which thread polled elements are handled and emitted downstream, defaults to {@link EmissionStrategy#immediate()},
+     * the thread completing the poll.
+     */
+    private final EmissionStrategy emission;
+    /**
+     * Predicts the concurrency needed ahead of time, i.e: a
+     * {@link com.jcarrey.reactor.poller.core.concurrency.HoltWintersConcurrencyForecast}, raising the minimum
+     * concurrency ahead of predicted bursts. Strategies and controllers scale above it, it never exceeds maxConcurrency.
+     */
+    @Nullable
+    private final ConcurrencyForecast<T> forecast;
+    /**
+     * Receives the elements polled but not emitted, because downstream cancelled or the poller is draining
+     * (see {@link PollerControl#drain(java.time.Duration)}), i.e: to make SQS messages visible again right away
+     * instead of waiting for their visibility timeout. Such elements are dropped when not set.
+     */
+    @Nullable
+    private final Consumer<T> release;
+    /**
+     * Whether a local resource polls depend on is saturated, i.e: the connection pools of the clients. While it is,
+     * scale-ups are ignored and controllers cannot raise concurrency, as more concurrent polls would only wait for
+     * that resource, and their latency would be misread as the source being slow. Never saturated when not set.
+     */
+    @Nullable
+    private final BooleanSupplier saturated;
 
     public ConcurrencyControlOptions(
             double initialConcurrency,
@@ -62,6 +112,29 @@ public class ConcurrencyControlOptions<T> {
             @Nullable ConcurrencyControlFunction scaleUpFn,
             @Nullable ConcurrencyControlFunction scaleDownFn,
             @Nullable ConcurrencyLockMechanism lockMechanism
+    ) {
+        this(initialConcurrency, minConcurrency, maxConcurrency, strategy, scaleUpFn, scaleDownFn, lockMechanism,
+                null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Options added later are only set through the builder, so adding more does not break existing callers
+     */
+    private ConcurrencyControlOptions(
+            double initialConcurrency,
+            double minConcurrency,
+            double maxConcurrency,
+            @Nullable ConcurrencyControlTrigger<T> strategy,
+            @Nullable ConcurrencyControlFunction scaleUpFn,
+            @Nullable ConcurrencyControlFunction scaleDownFn,
+            @Nullable ConcurrencyLockMechanism lockMechanism,
+            @Nullable ConcurrencyController<T> controller,
+            @Nullable ConcurrencySnapshotOptions snapshot,
+            @Nullable BufferingPolicy<T> buffering,
+            @Nullable EmissionStrategy emission,
+            @Nullable ConcurrencyForecast<T> forecast,
+            @Nullable Consumer<T> release,
+            @Nullable BooleanSupplier saturated
     ) {
         if (minConcurrency < 1) {
             throw new IllegalArgumentException("minConcurrency must be >= 1");
@@ -76,5 +149,53 @@ public class ConcurrencyControlOptions<T> {
         this.scaleUpFn = Optional.ofNullable(scaleUpFn).orElse(ConcurrencyControlFunctions.linear(1));
         this.scaleDownFn = Optional.ofNullable(scaleDownFn).orElse(ConcurrencyControlFunctions.linear(1));
         this.lockMechanism = Optional.ofNullable(lockMechanism).orElse(ConcurrencyLockMechanism.None);
+        this.controller = controller;
+        this.snapshot = snapshot;
+        this.buffering = buffering;
+        this.emission = Optional.ofNullable(emission).orElse(EmissionStrategy.immediate());
+        this.forecast = forecast;
+        this.release = release;
+        this.saturated = saturated;
+    }
+
+    /**
+     * Splits the concurrency bounds (and buffering limits and forecasted floor) in equal parts, one for each rail of a parallel poller.
+     * Snapshots are not supported per rail, so they are disabled.
+     */
+    ConcurrencyControlOptions<T> split(int rails) {
+        if (rails < 1) {
+            throw new IllegalArgumentException("rails must be >= 1");
+        }
+        if (maxConcurrency / rails < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be >= rails");
+        }
+        var railMin = Math.max(1d, minConcurrency / rails);
+        var railMax = maxConcurrency / rails;
+        var railInitial = Math.min(Math.max(initialConcurrency / rails, railMin), railMax);
+        return this.toBuilder()
+                .initialConcurrency(railInitial)
+                .minConcurrency(railMin)
+                .maxConcurrency(railMax)
+                .snapshot(null)
+                .buffering(buffering == null ? null : buffering.split(rails))
+                .forecast(forecast == null ? null : perRail(forecast, rails))
+                .build();
+    }
+
+    /**
+     * All rails record into the same forecast, so its floor is for all of them together
+     */
+    private static <T> ConcurrencyForecast<T> perRail(ConcurrencyForecast<T> forecast, int rails) {
+        return new ConcurrencyForecast<>() {
+            @Override
+            public void record(T pollerResponse) {
+                forecast.record(pollerResponse);
+            }
+
+            @Override
+            public double floor(double minConcurrency, double maxConcurrency) {
+                return forecast.floor(minConcurrency * rails, maxConcurrency * rails) / rails;
+            }
+        };
     }
 }
@@ -0,0 +1,294 @@
+package com.jcarrey.reactor.poller.core;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Every subscriber joins a consumer group sharing a single subscription to the source, i.e: a single
+ * adaptative control loop. The demand of all members is aggregated and requested from the source, and each
+ * element is delivered to exactly one member with outstanding demand, round-robin, so nothing is polled twice.
+ *
+ * The source is subscribed when the first member joins and cancelled when the last one leaves, a member
+ * joining afterwards starts a new subscription. Elements received but not delivered when the last member leaves
+ * are discarded, so they are handed to the release option, as with a cancelled poller.
+ */
+final class ConsumerGroupFlux<T> extends Flux<T> {
+    private final Flux<T> source;
+    private final Context discard;
+    @Nullable
+    private Group group;
+
+    ConsumerGroupFlux(Flux<T> source, Consumer<T> discard) {
+        this.source = source;
+        this.discard = Operators.enableOnDiscard(null, discard);
+    }
+
+    @Override
+    public void subscribe(CoreSubscriber<? super T> actual) {
+        Member member;
+        Group joined;
+        boolean connect = false;
+        synchronized (this) {
+            if (group == null || group.done) {
+                group = new Group();
+                connect = true;
+            }
+            joined = group;
+            member = new Member(actual, joined);
+            joined.members.add(member);
+        }
+        actual.onSubscribe(member);
+        member.subscribed();
+        if (connect) {
+            source.subscribe(joined);
+        }
+    }
+
+    private void leave(Member member) {
+        var left = member.group;
+        boolean cancel = false;
+        synchronized (this) {
+            left.members.remove(member);
+            if (left.members.isEmpty() && group == left) {
+                group = null;
+                cancel = true;
+            }
+        }
+        if (cancel) {
+            left.cancel();
+        } else {
+            // Its demand may have been requested from the source already, other members take those elements
+            left.drain();
+        }
+    }
+
+    private final class Group implements CoreSubscriber<T> {
+        private final CopyOnWriteArrayList<Member> members = new CopyOnWriteArrayList<>();
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicLong queued = new AtomicLong();
+        private final AtomicLong outstanding = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile Subscription upstream;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        @Nullable
+        private volatile Throwable error;
+        private int next;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (Operators.validate(upstream, subscription)) {
+                upstream = subscription;
+                if (cancelled) {
+                    subscription.cancel();
+                    return;
+                }
+                drain();
+            }
+        }
+
+        @Override
+        public void onNext(T element) {
+            if (cancelled) {
+                Operators.onDiscard(element, discard);
+                return;
+            }
+            if (outstanding.get() != Long.MAX_VALUE) {
+                outstanding.decrementAndGet();
+            }
+            queue.offer(element);
+            queued.incrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        void cancel() {
+            cancelled = true;
+            var subscription = upstream;
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            drain();
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            do {
+                if (cancelled) {
+                    // Elements may still arrive while cancelling, keep draining them
+                    Operators.onDiscardQueueWithClear(queue, discard, null);
+                } else {
+                    deliver();
+                    if (done && queue.isEmpty()) {
+                        terminate();
+                        return;
+                    }
+                    requestUpstream();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliver() {
+            while (!queue.isEmpty()) {
+                var member = nextWithDemand();
+                if (member == null) {
+                    return;
+                }
+                var element = queue.poll();
+                queued.decrementAndGet();
+                if (member.requested.get() != Long.MAX_VALUE) {
+                    member.requested.decrementAndGet();
+                }
+                member.actual.onNext(element);
+            }
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private Member nextWithDemand() {
+            var current = members.toArray();
+            for (int i = 0; i < current.length; i++) {
+                var member = (Member) current[(next + i) % current.length];
+                if (!member.cancelled && member.requested.get() > 0) {
+                    next = (next + i + 1) % current.length;
+                    return member;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Requests what members demand and is neither queued nor requested from the source already
+         */
+        private void requestUpstream() {
+            var subscription = upstream;
+            if (subscription == null) {
+                return;
+            }
+            var demand = 0L;
+            for (var member : members) {
+                if (!member.cancelled) {
+                    demand = Operators.addCap(demand, member.requested.get());
+                }
+            }
+            var current = outstanding.get();
+            if (current == Long.MAX_VALUE) {
+                return;
+            }
+            var missing = demand == Long.MAX_VALUE ? Long.MAX_VALUE : demand - queued.get() - current;
+            if (missing > 0) {
+                outstanding.getAndAccumulate(missing, Operators::addCap);
+                subscription.request(missing);
+            }
+        }
+
+        /**
+         * Members join under the same lock, so a member either joins before and is terminated here, or finds the
+         * group done and joins a new one
+         */
+        private void terminate() {
+            Object[] current;
+            synchronized (ConsumerGroupFlux.this) {
+                current = members.toArray();
+                members.clear();
+            }
+            for (var member : current) {
+                ((Member) member).terminate(error);
+            }
+        }
+    }
+
+    private final class Member implements Subscription {
+        private final CoreSubscriber<? super T> actual;
+        private final Group group;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile boolean subscribed;
+        private volatile boolean terminating;
+        @Nullable
+        private volatile Throwable failure;
+
+        Member(CoreSubscriber<? super T> actual, Group group) {
+            this.actual = actual;
+            this.group = group;
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndAccumulate(n, Operators::addCap);
+                group.drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                leave(this);
+            }
+        }
+
+        /**
+         * Its subscriber got its subscription, so it can be terminated
+         */
+        void subscribed() {
+            subscribed = true;
+            if (terminating) {
+                signalTerminal();
+            }
+        }
+
+        /**
+         * Terminates its subscriber, once it got its subscription if the group terminated in between
+         */
+        void terminate(@Nullable Throwable error) {
+            failure = error;
+            terminating = true;
+            if (subscribed) {
+                signalTerminal();
+            }
+        }
+
+        private void signalTerminal() {
+            if (!terminated.compareAndSet(false, true)) {
+                return;
+            }
+            var error = failure;
+            if (error != null) {
+                actual.onError(error);
+            } else {
+                actual.onComplete();
+            }
+        }
+    }
+}
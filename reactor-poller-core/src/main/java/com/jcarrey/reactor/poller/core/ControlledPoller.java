@@ -0,0 +1,11 @@
+package com.jcarrey.reactor.poller.core;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * An adaptative poller along with the live handle to reconfigure it
+ * @param flux Elements polled concurrently, each subscription polls with its own state
+ * @param control Reconfigures all the subscriptions of the flux at runtime
+ */
+public record ControlledPoller<T>(Flux<T> flux, PollerControl<T> control) {
+}
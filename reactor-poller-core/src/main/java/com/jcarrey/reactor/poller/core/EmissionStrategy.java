@@ -0,0 +1,61 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Defines on which thread polled elements are handled (concurrency adaptation) and emitted downstream.
+ * As the sink serializes emissions, an element may still be delivered downstream by another thread that is
+ * emitting at the same time.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class EmissionStrategy {
+    private static final EmissionStrategy IMMEDIATE = new EmissionStrategy(Mode.Immediate, null);
+
+    public enum Mode {
+        /**
+         * Emits on the thread completing the poll, i.e: the I/O thread. No thread hops at all,
+         * but downstream work delays the I/O thread.
+         */
+        Immediate,
+        /**
+         * Emits on any worker of the scheduler.
+         */
+        Scheduler,
+        /**
+         * Each concurrent poll emits always on the same worker of the scheduler, for cache locality.
+         */
+        PinnedWorker
+    }
+
+    private final Mode mode;
+    @Nullable
+    private final Scheduler scheduler;
+
+    /**
+     * @return Emits on the thread completing the poll
+     */
+    public static EmissionStrategy immediate() {
+        return IMMEDIATE;
+    }
+
+    /**
+     * @param scheduler The scheduler to emit on
+     * @return Emits on any worker of the scheduler
+     */
+    public static EmissionStrategy on(Scheduler scheduler) {
+        return new EmissionStrategy(Mode.Scheduler, scheduler);
+    }
+
+    /**
+     * @param scheduler The scheduler whose workers are assigned to concurrent polls
+     * @return Emits each concurrent poll always on the same worker of the scheduler
+     */
+    public static EmissionStrategy pinned(Scheduler scheduler) {
+        return new EmissionStrategy(Mode.PinnedWorker, scheduler);
+    }
+}
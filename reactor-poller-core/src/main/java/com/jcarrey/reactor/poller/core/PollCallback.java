@@ -0,0 +1,33 @@
+package com.jcarrey.reactor.poller.core;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Receives the outcome of an {@link AsyncPoller} poll. Only one of the methods must be invoked, exactly once per poll.
+ * It is a {@link BiConsumer} so it can be passed to {@link java.util.concurrent.CompletableFuture#whenComplete}
+ * without allocating an adapter.
+ */
+public interface PollCallback<T> extends BiConsumer<T, Throwable> {
+    /**
+     * The poll succeeded
+     * @param value The polled element, or null when nothing was polled
+     */
+    void complete(@Nullable T value);
+
+    /**
+     * The poll failed, the poller will keep polling
+     * @param error The cause of the failure
+     */
+    void fail(Throwable error);
+
+    @Override
+    default void accept(@Nullable T value, @Nullable Throwable error) {
+        if (error != null) {
+            fail(error);
+        } else {
+            complete(value);
+        }
+    }
+}
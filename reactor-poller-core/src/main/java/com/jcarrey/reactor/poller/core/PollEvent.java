@@ -0,0 +1,26 @@
+package com.jcarrey.reactor.poller.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcarrey.reactor.poller.Poll")
+@Label("Poll")
+@Category("Reactor Poller")
+@Description("A single poll, from the subscription to the poller until it terminates")
+class PollEvent extends Event {
+    static final String SUCCESS = "Success";
+    static final String EMPTY = "Empty";
+    static final String ERROR = "Error";
+    static final String DROPPED = "Dropped";
+
+    @Label("Outcome")
+    @Description("Success, Empty (completed without element), Error, or Dropped (the subscriber had cancelled)")
+    String outcome;
+
+    @Label("Pending Requests")
+    @Description("Concurrent polls in flight when this poll started, including itself")
+    long pendingRequests;
+}
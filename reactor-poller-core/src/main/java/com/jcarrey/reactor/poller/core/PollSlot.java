@@ -0,0 +1,159 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reusable concurrent poll. It is both the callback for {@link AsyncPoller} and the subscriber for the
+ * {@link Poller} Mono, so polling does not assemble any operator per poll. A slot is only reused once its
+ * previous poll has terminated.
+ * When emission happens on a scheduler, the slot itself is the task scheduled to handle the outcome.
+ * Each poll terminates once: a failure thrown by the poller after it already completed the poll is ignored.
+ */
+@Slf4j
+final class PollSlot<T> implements PollCallback<T>, CoreSubscriber<T>, Runnable {
+    private final AdaptativeConcurrencyControl<T> control;
+
+    @Nullable
+    private PollEvent event;
+    @Nullable
+    private T value;
+    @Nullable
+    private T result;
+    @Nullable
+    private Throwable error;
+    @Nullable
+    private volatile Scheduler.Worker worker;
+    /**
+     * Number of polls started and terminated by this slot, a poll is running while they differ
+     */
+    private volatile long started;
+    private final AtomicLong terminated = new AtomicLong(0);
+
+    PollSlot(AdaptativeConcurrencyControl<T> control) {
+        this.control = control;
+    }
+
+    void start(@Nullable PollEvent event, @Nullable Poller<T> poller, @Nullable AsyncPoller<T> asyncPoller) {
+        this.event = event;
+        var poll = started + 1;
+        started = poll;
+        try {
+            if (poller != null) {
+                poller.poll().subscribe(this);
+            } else {
+                asyncPoller.poll(this);
+            }
+        } catch (Throwable error) {
+            if (terminated.compareAndSet(poll - 1, poll)) {
+                onFailure(error);
+            } else {
+                log.debug("Poll failed after it terminated, ignoring the failure.", error);
+            }
+        }
+    }
+
+    @Nullable
+    PollEvent takeEvent() {
+        var current = event;
+        event = null;
+        return current;
+    }
+
+    /**
+     * @return The worker this slot emits on, created on first use
+     */
+    Scheduler.Worker worker(Scheduler scheduler) {
+        if (worker == null) {
+            worker = scheduler.createWorker();
+        }
+        return worker;
+    }
+
+    @Nullable
+    Scheduler.Worker worker() {
+        return worker;
+    }
+
+    /**
+     * @return Whether the running poll was not terminated yet, terminating it
+     */
+    private boolean terminate() {
+        var poll = started;
+        return terminated.compareAndSet(poll - 1, poll);
+    }
+
+    @Override
+    public void complete(@Nullable T value) {
+        if (!terminate()) {
+            log.debug("Poll already terminated, ignoring completion.");
+            return;
+        }
+        if (control.emitsImmediately()) {
+            control.onPollComplete(this, value);
+        } else {
+            this.result = value;
+            control.emit(this);
+        }
+    }
+
+    @Override
+    public void fail(Throwable error) {
+        if (!terminate()) {
+            log.debug("Poll already terminated, ignoring failure.", error);
+            return;
+        }
+        onFailure(error);
+    }
+
+    private void onFailure(Throwable error) {
+        if (control.emitsImmediately()) {
+            control.onPollError(this, error);
+        } else {
+            this.error = error;
+            control.emit(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        var currentError = error;
+        var currentResult = result;
+        error = null;
+        result = null;
+        if (currentError != null) {
+            control.onPollError(this, currentError);
+        } else {
+            control.onPollComplete(this, currentResult);
+        }
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T next) {
+        // Delivered on completion, so the slot is never reused before the Mono terminates
+        this.value = next;
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        this.value = null;
+        fail(error);
+    }
+
+    @Override
+    public void onComplete() {
+        var current = value;
+        value = null;
+        complete(current);
+    }
+}
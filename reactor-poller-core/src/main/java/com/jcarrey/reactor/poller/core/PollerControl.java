@@ -0,0 +1,196 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunction;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Live handle to reconfigure a running adaptative poller without resubscribing, so in-flight polls are not dropped.
+ * Changes apply to all its subscriptions on their next dispatch, which is triggered right away.
+ */
+@Slf4j
+public class PollerControl<T> {
+    private final AtomicReference<ConcurrencyControlOptions<T>> options;
+    @Nullable
+    private volatile Double pinned;
+    private final Set<Runnable> listeners = new CopyOnWriteArraySet<>();
+    private final Map<CompletableFuture<Void>, Runnable> subscriptions = new ConcurrentHashMap<>();
+    private volatile boolean draining;
+
+    PollerControl(ConcurrencyControlOptions<T> options) {
+        this.options = new AtomicReference<>(options);
+    }
+
+    /**
+     * @return The options currently in use
+     */
+    public ConcurrencyControlOptions<T> options() {
+        return options.get();
+    }
+
+    /**
+     * Atomically replaces the options, i.e: {@code control.update(current -> current.toBuilder().maxConcurrency(5).build())}.
+     * The current concurrency of each subscription is clamped into the new bounds, initialConcurrency is not used.
+     * Emission, snapshot and buffering are fixed for the lifetime of a subscription, so they cannot be changed.
+     * @param update Calculates the new options out of the current ones, may be called more than once on contention
+     * @return The options now in use
+     */
+    public ConcurrencyControlOptions<T> update(UnaryOperator<ConcurrencyControlOptions<T>> update) {
+        var updated = options.updateAndGet(current -> {
+            var next = update.apply(current);
+            if (next.getEmission() != current.getEmission()
+                    || next.getSnapshot() != current.getSnapshot()
+                    || next.getBuffering() != current.getBuffering()) {
+                throw new IllegalArgumentException("emission, snapshot and buffering cannot be changed at runtime");
+            }
+            return next;
+        });
+        log.debug("Options updated min={}, max={}", updated.getMinConcurrency(), updated.getMaxConcurrency());
+        notifyListeners();
+        return updated;
+    }
+
+    /**
+     * Replaces the concurrency bounds
+     */
+    public ConcurrencyControlOptions<T> bounds(double minConcurrency, double maxConcurrency) {
+        return update(current -> current.toBuilder()
+                .minConcurrency(minConcurrency)
+                .maxConcurrency(maxConcurrency)
+                .initialConcurrency(Math.min(Math.max(current.getInitialConcurrency(), minConcurrency), maxConcurrency))
+                .build());
+    }
+
+    /**
+     * Replaces the strategy and the scale functions
+     */
+    public ConcurrencyControlOptions<T> strategy(
+            ConcurrencyControlTrigger<T> strategy,
+            ConcurrencyControlFunction scaleUpFn,
+            ConcurrencyControlFunction scaleDownFn
+    ) {
+        return update(current -> current.toBuilder()
+                .strategy(strategy)
+                .scaleUpFn(scaleUpFn)
+                .scaleDownFn(scaleDownFn)
+                .build());
+    }
+
+    /**
+     * Fixes the concurrency to a value, regardless of the bounds, until {@link #unpin()}.
+     * Concurrency is not adapted in the meantime. Pinning to 0 pauses polling, in-flight polls still complete.
+     */
+    public void pin(double concurrency) {
+        if (concurrency < 0) {
+            throw new IllegalArgumentException("concurrency must be >= 0");
+        }
+        pinned = concurrency;
+        log.debug("Concurrency pinned to {}", concurrency);
+        notifyListeners();
+    }
+
+    /**
+     * Resumes adapting the concurrency from where it was before pinning
+     */
+    public void unpin() {
+        pinned = null;
+        log.debug("Concurrency unpinned");
+        notifyListeners();
+    }
+
+    /**
+     * @return The pinned concurrency, or null when it adapts
+     */
+    @Nullable
+    public Double pinned() {
+        return pinned;
+    }
+
+    /**
+     * Gracefully stops all the subscriptions, right away: no more polls are issued, the results of in-flight polls
+     * are handed to the release option instead of being emitted, and each subscription completes once its in-flight
+     * polls terminated. Elements already emitted are still delivered downstream. It cannot be undone, later
+     * subscriptions complete straight away.
+     * Subscriptions with polls still in flight at the deadline complete anyway, the results of those polls are
+     * handed to the release option whenever they arrive.
+     * @param deadline How long to wait for in-flight polls
+     * @return Emits true once every subscription drained, or false if the deadline was reached first
+     */
+    public Mono<Boolean> drain(Duration deadline) {
+        draining = true;
+        var pending = subscriptions.keySet().toArray(CompletableFuture[]::new);
+        log.debug("Draining {} subscriptions", pending.length);
+        notifyListeners();
+        return Mono.fromFuture(CompletableFuture.allOf(pending))
+                .thenReturn(true)
+                .timeout(deadline, Mono.fromSupplier(() -> {
+                    log.warn("Polls still in flight after draining for {}, completing anyway", deadline);
+                    for (var abandon : subscriptions.values()) {
+                        abandon.run();
+                    }
+                    return false;
+                }));
+    }
+
+    /**
+     * @return Whether the subscriptions are draining, or drained
+     */
+    public boolean draining() {
+        return draining;
+    }
+
+    /**
+     * Hands an element that will not be emitted to the release option
+     */
+    void release(T element) {
+        var release = options().getRelease();
+        if (release == null) {
+            return;
+        }
+        try {
+            release.accept(element);
+        } catch (Exception error) {
+            log.warn("Could not release polled element.", error);
+        }
+    }
+
+    /**
+     * Registers a subscription to wait for when draining, until it completes the future
+     * @param abandon Completes the subscription without waiting for its in-flight polls, once the deadline is reached
+     */
+    void onDrain(CompletableFuture<Void> drained, Runnable abandon) {
+        subscriptions.put(drained, abandon);
+        drained.whenComplete((ignored, error) -> subscriptions.remove(drained));
+    }
+
+    /**
+     * Registers a subscription to dispatch again when the configuration changes
+     * @return Unregisters it
+     */
+    Runnable onChange(Runnable listener) {
+        listeners.add(Objects.requireNonNull(listener));
+        return () -> listeners.remove(listener);
+    }
+
+    private void notifyListeners() {
+        for (var listener : listeners) {
+            try {
+                listener.run();
+            } catch (Exception error) {
+                log.warn("Could not apply configuration change.", error);
+            }
+        }
+    }
+}
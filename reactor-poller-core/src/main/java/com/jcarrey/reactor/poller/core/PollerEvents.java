@@ -0,0 +1,68 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
+import jdk.jfr.EventType;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Emits the JFR events of the poller. When recording is off (or the event is disabled), the only
+ * cost on the hot path is checking whether the event type is enabled, no event is allocated.
+ */
+final class PollerEvents {
+    private static final EventType POLL = EventType.getEventType(PollEvent.class);
+    private static final EventType CONCURRENCY_CHANGE = EventType.getEventType(ConcurrencyChangeEvent.class);
+    private static final EventType SINK_BACKLOG = EventType.getEventType(SinkBacklogEvent.class);
+
+    @Nullable
+    static PollEvent beginPoll(long pendingRequests) {
+        if (!POLL.isEnabled()) {
+            return null;
+        }
+        var event = new PollEvent();
+        event.pendingRequests = pendingRequests;
+        event.begin();
+        return event;
+    }
+
+    static void endPoll(@Nullable PollEvent event, String outcome) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    static void concurrencyChange(double from, double to, ConcurrencyControlOperation operation, Object trigger) {
+        if (!CONCURRENCY_CHANGE.isEnabled() || from == to) {
+            return;
+        }
+        var event = new ConcurrencyChangeEvent();
+        if (event.shouldCommit()) {
+            event.from = from;
+            event.to = to;
+            event.operation = operation.name();
+            event.trigger = trigger.getClass();
+            event.commit();
+        }
+    }
+
+    static boolean isSinkBacklogEnabled() {
+        return SINK_BACKLOG.isEnabled();
+    }
+
+    static void sinkBacklog(long buffered, long requestedFromDownstream, long pendingRequests, double concurrency) {
+        var event = new SinkBacklogEvent();
+        if (event.shouldCommit()) {
+            event.buffered = buffered;
+            event.requestedFromDownstream = requestedFromDownstream;
+            event.pendingRequests = pendingRequests;
+            event.concurrency = concurrency;
+            event.commit();
+        }
+    }
+
+    private PollerEvents() {}
+}
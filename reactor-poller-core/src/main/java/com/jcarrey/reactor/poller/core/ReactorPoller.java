@@ -1,6 +1,12 @@
 package com.jcarrey.reactor.poller.core;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 public class ReactorPoller {
 
@@ -12,7 +18,125 @@ public class ReactorPoller {
      * @return A Flux containing elements that are polled concurrently out of the poller
      */
     public static <T> Flux<T> adaptative(Poller<T> poller, ConcurrencyControlOptions<T> options) {
-        return Flux.create(new AdaptativeConcurrencyControl<>(poller, options));
+        var control = new PollerControl<>(options);
+        return create(() -> new AdaptativeConcurrencyControl<>(poller, control), control);
+    }
+
+    /**
+     * Creates an adaptative poller that adapts concurrency based on the options, driving a callback based poller
+     * with reusable callbacks, so no Reactor operators are assembled per poll
+     * @param poller The source of elements that are polled
+     * @param options Options to control the concurrency adaptability
+     * @param <T> The type of the elements being polled and transformed into a Flux
+     * @return A Flux containing elements that are polled concurrently out of the poller
+     */
+    public static <T> Flux<T> adaptative(AsyncPoller<T> poller, ConcurrencyControlOptions<T> options) {
+        var control = new PollerControl<>(options);
+        return create(() -> new AdaptativeConcurrencyControl<>(poller, control), control);
+    }
+
+    /**
+     * Creates an adaptative poller along with a live handle to reconfigure it without resubscribing
+     * @param poller The source of elements that are polled
+     * @param options Initial options to control the concurrency adaptability
+     * @param <T> The type of the elements being polled and transformed into a Flux
+     * @return The Flux containing elements that are polled concurrently, and the handle to control all its subscriptions
+     */
+    public static <T> ControlledPoller<T> adaptativeControlled(Poller<T> poller, ConcurrencyControlOptions<T> options) {
+        var control = new PollerControl<>(options);
+        return new ControlledPoller<>(create(() -> new AdaptativeConcurrencyControl<>(poller, control), control), control);
+    }
+
+    /**
+     * Creates a callback based adaptative poller along with a live handle to reconfigure it without resubscribing,
+     * see {@link #adaptativeControlled(Poller, ConcurrencyControlOptions)}
+     */
+    public static <T> ControlledPoller<T> adaptativeControlled(AsyncPoller<T> poller, ConcurrencyControlOptions<T> options) {
+        var control = new PollerControl<>(options);
+        return new ControlledPoller<>(create(() -> new AdaptativeConcurrencyControl<>(poller, control), control), control);
+    }
+
+    /**
+     * Creates an adaptative poller shared by a consumer group: all subscribers share a single control loop,
+     * their demand is aggregated and each polled element is delivered to only one of them.
+     * Polling starts with the first subscriber and stops when the last one cancels, elements polled but not
+     * delivered by then are handed to the release option.
+     * @param poller The source of elements that are polled
+     * @param options Options to control the concurrency adaptability
+     * @param <T> The type of the elements being polled and transformed into a Flux
+     * @return A Flux whose subscribers consume the polled elements as a group
+     */
+    public static <T> Flux<T> adaptativeShared(Poller<T> poller, ConcurrencyControlOptions<T> options) {
+        var control = new PollerControl<>(options);
+        return new ConsumerGroupFlux<>(create(() -> new AdaptativeConcurrencyControl<>(poller, control), control), control::release);
+    }
+
+    /**
+     * Creates an adaptative poller shared by a consumer group, see {@link #adaptativeShared(Poller, ConcurrencyControlOptions)}
+     * @param poller The source of elements that are polled, with reusable callbacks
+     * @param options Options to control the concurrency adaptability
+     * @param <T> The type of the elements being polled and transformed into a Flux
+     * @return A Flux whose subscribers consume the polled elements as a group
+     */
+    public static <T> Flux<T> adaptativeShared(AsyncPoller<T> poller, ConcurrencyControlOptions<T> options) {
+        var control = new PollerControl<>(options);
+        return new ConsumerGroupFlux<>(create(() -> new AdaptativeConcurrencyControl<>(poller, control), control), control::release);
+    }
+
+    /**
+     * Each subscription gets its own control, so re-subscribing (retry, repeat or another subscriber) does not
+     * share pending requests nor concurrency with other subscriptions.
+     * Strategies, controllers, forecasts and snapshots in the options are still shared.
+     * Elements still buffered in the sink on cancel are handed to the release option as well.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Flux<T> create(Supplier<AdaptativeConcurrencyControl<T>> controls, PollerControl<T> pollerControl) {
+        return Flux.defer(() -> {
+            var control = controls.get();
+            var flux = Flux.create(control)
+                    .doOnDiscard(Object.class, element -> control.releaseElement((T) element));
+            var buffering = pollerControl.options().getBuffering();
+            if (buffering != null && buffering.isBytesBounded()) {
+                return flux.doOnNext(control::onDelivered);
+            }
+            return flux;
+        });
+    }
+
+    /**
+     * Creates independent adaptative pollers, one per rail, each one with its own sink and concurrency,
+     * so there is no single emission point shared by all polls. Rails run on {@link Schedulers#parallel()}.
+     * @param poller The source of elements that are polled, shared by all rails
+     * @param options Options to control the concurrency adaptability, min, max and initial concurrency are split
+     *                across rails, see {@link #adaptativeParallel(Poller, ConcurrencyControlOptions, int, Scheduler)}
+     * @param rails The number of rails, i.e: the number of cores
+     * @param <T> The type of the elements being polled
+     * @return A ParallelFlux with one rail per independent poller
+     */
+    public static <T> ParallelFlux<T> adaptativeParallel(Poller<T> poller, ConcurrencyControlOptions<T> options, int rails) {
+        return adaptativeParallel(poller, options, rails, Schedulers.parallel());
+    }
+
+    /**
+     * Creates independent adaptative pollers, one per rail, each one with its own sink and concurrency,
+     * so there is no single emission point shared by all polls.
+     * Each rail gets 1/rails of min, max and initial concurrency (min being at least 1), of the buffering limits
+     * and of the forecasted floor.
+     * Strategies and controllers are shared by all rails, so they must be thread-safe. Snapshots are disabled.
+     * @param poller The source of elements that are polled, shared by all rails
+     * @param options Options to control the concurrency adaptability
+     * @param rails The number of rails, i.e: the number of cores
+     * @param scheduler Each rail emits on its own worker of this scheduler
+     * @param <T> The type of the elements being polled
+     * @return A ParallelFlux with one rail per independent poller
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ParallelFlux<T> adaptativeParallel(Poller<T> poller, ConcurrencyControlOptions<T> options, int rails, Scheduler scheduler) {
+        var railOptions = options.split(rails);
+        var railPollers = IntStream.range(0, rails)
+                .mapToObj(rail -> adaptative(poller, railOptions))
+                .toArray(Flux[]::new);
+        return ParallelFlux.<T>from(railPollers).runOn(scheduler);
     }
 
     private ReactorPoller() {}
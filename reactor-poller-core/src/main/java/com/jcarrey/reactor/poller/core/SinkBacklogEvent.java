@@ -0,0 +1,26 @@
+package com.jcarrey.reactor.poller.core;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.jcarrey.reactor.poller.SinkBacklog")
+@Label("Sink Backlog")
+@Category("Reactor Poller")
+@Description("Elements polled but not yet delivered downstream, and the demand driving the poller, recorded on each dispatch of polls")
+class SinkBacklogEvent extends Event {
+    @Label("Buffered")
+    @Description("Elements emitted into the sink and not yet delivered downstream")
+    long buffered;
+
+    @Label("Requested From Downstream")
+    long requestedFromDownstream;
+
+    @Label("Pending Requests")
+    long pendingRequests;
+
+    @Label("Concurrency")
+    double concurrency;
+}
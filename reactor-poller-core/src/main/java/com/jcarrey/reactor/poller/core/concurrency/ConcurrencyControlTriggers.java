@@ -0,0 +1,39 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+public class ConcurrencyControlTriggers {
+
+    /**
+     * {@link WindowedConcurrencyControlTrigger}
+     * Triggers scale events based on a moving average of each response score instead of each single response.
+     *  When average &gt;= scaleUpThreshold -&gt; ScaleUp
+     *  When average &lt;= scaleDownThreshold -&gt; ScaleDown
+     *  Otherwise, or within the cooldown of the previous event -&gt; Noop
+     * @param score The score of each poller response, i.e: the number of messages it contains
+     * @param alpha The weight of each new response in the moving average, in (0, 1]
+     * @param scaleUpThreshold The average at which scale-ups are triggered
+     * @param scaleDownThreshold The average at which scale-downs are triggered, must be lower than scaleUpThreshold
+     * @param cooldown Minimum time in between two scale events
+     * @param <T> The type of the elements being polled
+     * @return a ConcurrencyControlTrigger with smoothed decisions
+     */
+    public static <T> ConcurrencyControlTrigger<T> windowed(
+            ToDoubleFunction<T> score,
+            double alpha,
+            double scaleUpThreshold,
+            double scaleDownThreshold,
+            Duration cooldown
+    ) {
+        return WindowedConcurrencyControlTrigger.<T>builder()
+                .score(score)
+                .alpha(alpha)
+                .scaleUpThreshold(scaleUpThreshold)
+                .scaleDownThreshold(scaleDownThreshold)
+                .cooldown(cooldown)
+                .build();
+    }
+
+    private ConcurrencyControlTriggers() {}
+}
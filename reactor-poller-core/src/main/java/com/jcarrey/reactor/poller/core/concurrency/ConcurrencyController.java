@@ -0,0 +1,19 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+/**
+ * Closed-loop alternative to {@link ConcurrencyControlTrigger} plus {@link ConcurrencyControlFunction}:
+ * instead of deciding a direction and a step, it calculates the concurrency that should be used
+ * after observing a poller response.
+ */
+@FunctionalInterface
+public interface ConcurrencyController<T> {
+    /**
+     * Returns the concurrency to use after the given response
+     * @param currentConcurrency The current concurrency of the poller
+     * @param minConcurrency The minimum concurrency allowed
+     * @param maxConcurrency The maximum concurrency allowed
+     * @param pollerResponse The response from the poller
+     * @return The next concurrency, which will be kept between min and max concurrency settings.
+     */
+    double calculate(double currentConcurrency, double minConcurrency, double maxConcurrency, T pollerResponse);
+}
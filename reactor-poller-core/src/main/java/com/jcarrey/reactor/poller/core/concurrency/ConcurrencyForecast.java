@@ -0,0 +1,20 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+/**
+ * Predicts the concurrency that will be needed out of the history of poller responses, so recurring bursts
+ * are anticipated instead of reacted to a few poll cycles late.
+ *
+ * The prediction is a floor: triggers and controllers keep scaling above it, but never below it.
+ * It is shared by all concurrent pollers, so implementations must be thread-safe.
+ */
+public interface ConcurrencyForecast<T> {
+    /**
+     * Observes a successful poller response
+     */
+    void record(T pollerResponse);
+
+    /**
+     * @return The concurrency predicted to be needed soon, between minConcurrency and maxConcurrency
+     */
+    double floor(double minConcurrency, double maxConcurrency);
+}
@@ -0,0 +1,246 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import com.jcarrey.reactor.poller.core.snapshot.SnapshotParticipant;
+import lombok.Builder;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Forecasts the arrival rate (messages per second) with additive Holt-Winters smoothing: a level, a trend
+ * and one seasonal component per bucket of the season, i.e: 24 buckets of 1 hour for a daily pattern.
+ *
+ * Buckets are aligned to the wall clock, so the seasonal components keep their meaning across restarts
+ * when they are part of the concurrency snapshot. The first complete season initializes the model,
+ * until then the floor is minConcurrency.
+ *
+ * The floor is the highest rate forecasted for the current bucket and the lookahead, divided by the rate
+ * a single concurrent poller sustains.
+ */
+public class HoltWintersConcurrencyForecast<T> implements ConcurrencyForecast<T>, SnapshotParticipant {
+    private static final String LEVEL = "level";
+    private static final String TREND = "trend";
+    private static final String SEASON = "season.";
+
+    /**
+     * Messages in a single poller response
+     */
+    private final ToDoubleFunction<T> messages;
+    /**
+     * Messages per second sustained by a single concurrent poller, i.e: messages per poll / poll latency
+     */
+    private final double ratePerConcurrency;
+    /**
+     * Width of a bucket of the history
+     */
+    private final long bucketMillis;
+    /**
+     * How far ahead of the current bucket bursts are anticipated
+     */
+    private final int lookaheadBuckets;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    /**
+     * Source of wall clock time in milliseconds, defaults to {@link System#currentTimeMillis()}
+     */
+    private final LongSupplier clock;
+
+    private final double[] seasonal;
+    private final DoubleAdder bucketMessages = new DoubleAdder();
+    private volatile long bucket = -1;
+    private boolean partialBucket = true;
+    private long observedBuckets;
+    private double level;
+    private double trend;
+    private volatile double forecastRate = Double.NaN;
+
+    /**
+     * @param messages Messages in a single poller response
+     * @param ratePerConcurrency Messages per second sustained by a single concurrent poller
+     * @param bucket Width of a bucket of the history, defaults to 1 minute
+     * @param seasonLength Buckets in a season, i.e: 1440 minutes in a day
+     * @param lookahead How far ahead of the current bucket bursts are anticipated, defaults to one bucket
+     * @param alpha Smoothing of the level, defaults to 0.5
+     * @param beta Smoothing of the trend, defaults to 0.1
+     * @param gamma Smoothing of the seasonal components, defaults to 0.3
+     * @param clock Source of wall clock time in milliseconds
+     */
+    @Builder
+    public HoltWintersConcurrencyForecast(
+            ToDoubleFunction<T> messages,
+            double ratePerConcurrency,
+            @Nullable Duration bucket,
+            int seasonLength,
+            @Nullable Duration lookahead,
+            @Nullable Double alpha,
+            @Nullable Double beta,
+            @Nullable Double gamma,
+            @Nullable LongSupplier clock
+    ) {
+        if (messages == null) {
+            throw new IllegalArgumentException("messages must not be null");
+        }
+        if (ratePerConcurrency <= 0) {
+            throw new IllegalArgumentException("ratePerConcurrency must be > 0");
+        }
+        if (seasonLength < 2) {
+            throw new IllegalArgumentException("seasonLength must be >= 2");
+        }
+        this.messages = messages;
+        this.ratePerConcurrency = ratePerConcurrency;
+        this.bucketMillis = Optional.ofNullable(bucket).orElse(Duration.ofMinutes(1)).toMillis();
+        if (bucketMillis < 1) {
+            throw new IllegalArgumentException("bucket must be >= 1ms");
+        }
+        var lookaheadMillis = Optional.ofNullable(lookahead).orElse(Duration.ofMillis(bucketMillis)).toMillis();
+        this.lookaheadBuckets = (int) Math.min(seasonLength, Math.max(0, (lookaheadMillis + bucketMillis - 1) / bucketMillis));
+        this.alpha = smoothing("alpha", alpha, 0.5);
+        this.beta = smoothing("beta", beta, 0.1);
+        this.gamma = smoothing("gamma", gamma, 0.3);
+        this.clock = Optional.ofNullable(clock).orElse(System::currentTimeMillis);
+        this.seasonal = new double[seasonLength];
+    }
+
+    private static double smoothing(String name, @Nullable Double value, double defaultValue) {
+        var result = Optional.ofNullable(value).orElse(defaultValue);
+        if (result < 0d || result > 1d) {
+            throw new IllegalArgumentException(name + " must be in [0, 1]");
+        }
+        return result;
+    }
+
+    @Override
+    public void record(T pollerResponse) {
+        roll(clock.getAsLong() / bucketMillis);
+        bucketMessages.add(messages.applyAsDouble(pollerResponse));
+    }
+
+    @Override
+    public double floor(double minConcurrency, double maxConcurrency) {
+        roll(clock.getAsLong() / bucketMillis);
+        var rate = forecastRate;
+        if (Double.isNaN(rate)) {
+            return minConcurrency;
+        }
+        return Math.min(Math.max(Math.ceil(rate / ratePerConcurrency), minConcurrency), maxConcurrency);
+    }
+
+    /**
+     * @return The highest rate forecasted for the current bucket and the lookahead, or NaN until a season was observed
+     */
+    public double forecastRate() {
+        return forecastRate;
+    }
+
+    private void roll(long now) {
+        if (now == bucket) {
+            return;
+        }
+        synchronized (this) {
+            if (now <= bucket) {
+                return;
+            }
+            if (bucket >= 0) {
+                var rate = bucketMessages.sumThenReset() * 1000d / bucketMillis;
+                if (!partialBucket) {
+                    observe(bucket, rate);
+                }
+                // Buckets without responses had no arrivals, gaps longer than a season are not worth replaying
+                for (var missed = Math.max(bucket + 1, now - seasonal.length); missed < now; missed++) {
+                    observe(missed, 0d);
+                }
+            }
+            partialBucket = bucket < 0;
+            bucket = now;
+            if (observedBuckets >= seasonal.length) {
+                forecastRate = forecast(now);
+            }
+        }
+    }
+
+    private void observe(long bucket, double rate) {
+        var index = index(bucket);
+        observedBuckets++;
+        if (observedBuckets <= seasonal.length) {
+            seasonal[index] = rate;
+            if (observedBuckets == seasonal.length) {
+                initialize();
+            }
+            return;
+        }
+        var previousLevel = level;
+        level = alpha * (rate - seasonal[index]) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        seasonal[index] = gamma * (rate - level) + (1 - gamma) * seasonal[index];
+    }
+
+    /**
+     * The first season is the initial level, and the seasonal components are the deviations from it
+     */
+    private void initialize() {
+        var sum = 0d;
+        for (var rate : seasonal) {
+            sum += rate;
+        }
+        level = sum / seasonal.length;
+        trend = 0d;
+        for (int i = 0; i < seasonal.length; i++) {
+            seasonal[i] -= level;
+        }
+    }
+
+    private double forecast(long current) {
+        var max = 0d;
+        for (int ahead = 0; ahead <= lookaheadBuckets; ahead++) {
+            max = Math.max(max, level + (ahead + 1) * trend + seasonal[index(current + ahead)]);
+        }
+        return max;
+    }
+
+    private int index(long bucket) {
+        return (int) (bucket % seasonal.length);
+    }
+
+    @Override
+    public synchronized Map<String, Double> stats() {
+        if (observedBuckets < seasonal.length) {
+            return Map.of();
+        }
+        var stats = new HashMap<String, Double>();
+        stats.put(LEVEL, level);
+        stats.put(TREND, trend);
+        for (int i = 0; i < seasonal.length; i++) {
+            stats.put(SEASON + i, seasonal[i]);
+        }
+        return stats;
+    }
+
+    @Override
+    public synchronized void restore(Map<String, Double> stats) {
+        if (!stats.containsKey(LEVEL) || !stats.containsKey(TREND)) {
+            return;
+        }
+        for (int i = 0; i <= seasonal.length; i++) {
+            if (stats.containsKey(SEASON + i) == (i == seasonal.length)) {
+                // Different season length, the components do not match the buckets
+                return;
+            }
+        }
+        level = stats.get(LEVEL);
+        trend = stats.get(TREND);
+        for (int i = 0; i < seasonal.length; i++) {
+            seasonal[i] = stats.get(SEASON + i);
+        }
+        observedBuckets = Math.max(observedBuckets, seasonal.length);
+        if (bucket >= 0) {
+            forecastRate = forecast(bucket);
+        }
+    }
+}
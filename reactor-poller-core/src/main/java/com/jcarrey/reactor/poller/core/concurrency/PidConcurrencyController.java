@@ -0,0 +1,110 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import com.jcarrey.reactor.poller.core.snapshot.SnapshotParticipant;
+import lombok.Builder;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Tracks a setpoint (i.e: 80% full batches per receive) using a proportional-integral-derivative controller.
+ *
+ * The error is {@code measurement - setpoint}, so a positive error means that more concurrency is needed.
+ * Each poller response is a sample, and as there are as many samples per cycle as concurrent pollers,
+ * integral and derivative corrections are divided by the current concurrency, so gains are expressed per cycle.
+ *
+ * The integral term holds the steady-state concurrency, starting at the concurrency observed on the first response.
+ * It is kept between min and max concurrency, and stops integrating while the output is saturated
+ * (anti-windup), so it recovers as soon as the error changes sign.
+ *
+ * The integral and the last error are part of the concurrency snapshot, so a restart resumes tracking the setpoint
+ * from the learned steady-state concurrency instead of the one observed on the first response.
+ */
+public class PidConcurrencyController<T> implements ConcurrencyController<T>, SnapshotParticipant {
+    private static final String INTEGRAL = "integral";
+    private static final String ERROR = "error";
+
+    /**
+     * The measured value of a poller response, i.e: messages received / max messages per receive
+     */
+    private final ToDoubleFunction<T> measurement;
+    /**
+     * The value the measurement should converge to
+     */
+    private final double setpoint;
+    /**
+     * Concurrency added per unit of error
+     */
+    private final double kp;
+    /**
+     * Concurrency accumulated per unit of error per cycle
+     */
+    private final double ki;
+    /**
+     * Concurrency added per unit of error change per cycle
+     */
+    private final double kd;
+
+    private final AtomicReference<State> state = new AtomicReference<>(new State(Double.NaN, 0d, 0d));
+
+    @Builder
+    public PidConcurrencyController(ToDoubleFunction<T> measurement, double setpoint, double kp, double ki, double kd) {
+        if (measurement == null) {
+            throw new IllegalArgumentException("measurement must not be null");
+        }
+        if (kp < 0 || ki < 0 || kd < 0) {
+            throw new IllegalArgumentException("gains must be >= 0");
+        }
+        this.measurement = measurement;
+        this.setpoint = setpoint;
+        this.kp = kp;
+        this.ki = ki;
+        this.kd = kd;
+    }
+
+    @Override
+    public double calculate(double currentConcurrency, double minConcurrency, double maxConcurrency, T pollerResponse) {
+        var error = measurement.applyAsDouble(pollerResponse) - setpoint;
+        var samplesPerCycle = Math.max(1d, currentConcurrency);
+        return state.updateAndGet(previous -> {
+            var integral = Double.isNaN(previous.integral()) ? currentConcurrency : previous.integral();
+            var derivative = kd * (error - previous.error()) / samplesPerCycle;
+            var proportional = kp * error;
+
+            var integrated = integral + ki * error / samplesPerCycle;
+            var unclamped = integrated + proportional + derivative;
+            var saturated = unclamped > maxConcurrency && error > 0 || unclamped < minConcurrency && error < 0;
+            if (!saturated) {
+                integral = clamp(integrated, minConcurrency, maxConcurrency);
+            }
+
+            var output = clamp(integral + proportional + derivative, minConcurrency, maxConcurrency);
+            return new State(integral, error, output);
+        }).output();
+    }
+
+    @Override
+    public Map<String, Double> stats() {
+        var current = state.get();
+        if (Double.isNaN(current.integral())) {
+            return Map.of();
+        }
+        return Map.of(INTEGRAL, current.integral(), ERROR, current.error());
+    }
+
+    @Override
+    public void restore(Map<String, Double> stats) {
+        var integral = stats.get(INTEGRAL);
+        var error = stats.get(ERROR);
+        if (integral != null && error != null) {
+            state.set(new State(integral, error, integral));
+        }
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.min(Math.max(value, min), max);
+    }
+
+    private record State(double integral, double error, double output) {}
+}
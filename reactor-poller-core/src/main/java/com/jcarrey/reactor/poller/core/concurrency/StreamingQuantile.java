@@ -0,0 +1,81 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Estimates a quantile of a stream of values in constant memory, using the Frugal-2U algorithm:
+ * the estimate moves towards each sample with a probability given by the quantile, with a step that grows
+ * while it keeps moving in the same direction, so it follows shifts of the distribution quickly.
+ *
+ * It is an approximation meant for control loops (i.e: the p95 age of messages), not for reporting.
+ * Updates are synchronized, as they are just a few arithmetic operations.
+ */
+public class StreamingQuantile {
+    private final double quantile;
+    private final DoubleSupplier random;
+
+    private double estimate = Double.NaN;
+    private double step = 1d;
+    private int sign = 1;
+    private long samples;
+
+    /**
+     * @param quantile The quantile to estimate, i.e: 0.95 for p95
+     */
+    public StreamingQuantile(double quantile) {
+        this(quantile, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    StreamingQuantile(double quantile, DoubleSupplier random) {
+        if (quantile <= 0d || quantile >= 1d) {
+            throw new IllegalArgumentException("quantile must be in (0, 1)");
+        }
+        this.quantile = quantile;
+        this.random = random;
+    }
+
+    public synchronized void add(double sample) {
+        samples++;
+        if (Double.isNaN(estimate)) {
+            estimate = sample;
+            return;
+        }
+
+        if (sample > estimate && random.getAsDouble() > 1 - quantile) {
+            step += sign > 0 ? 1 : -1;
+            estimate += step > 0 ? Math.ceil(step) : 1;
+            sign = 1;
+            if (estimate > sample) {
+                step += sample - estimate;
+                estimate = sample;
+            }
+        } else if (sample < estimate && random.getAsDouble() > quantile) {
+            step += sign < 0 ? 1 : -1;
+            estimate -= step > 0 ? Math.ceil(step) : 1;
+            sign = -1;
+            if (estimate < sample) {
+                step += estimate - sample;
+                estimate = sample;
+            }
+        }
+
+        if ((estimate - sample) * sign < 0 && step > 1) {
+            step = 1;
+        }
+    }
+
+    /**
+     * @return The estimated quantile, or NaN if there were no samples yet
+     */
+    public synchronized double estimate() {
+        return estimate;
+    }
+
+    /**
+     * @return How many samples were added
+     */
+    public synchronized long samples() {
+        return samples;
+    }
+}
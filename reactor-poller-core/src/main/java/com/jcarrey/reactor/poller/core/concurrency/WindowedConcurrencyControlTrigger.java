@@ -0,0 +1,134 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import com.jcarrey.reactor.poller.core.snapshot.SnapshotParticipant;
+import lombok.Builder;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.ToDoubleFunction;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+/**
+ * Smooths the per-response score (for example, the number of messages received) with an
+ * exponentially weighted moving average, and only triggers scale events once the average crosses
+ * the scale-up or scale-down thresholds.
+ *
+ * Values in between both thresholds are a dead band where nothing happens (hysteresis), and after a scale
+ * event no other event is triggered until the cooldown elapses, so a mixed stream of full and empty responses
+ * does not make concurrency oscillate.
+ *
+ * The average is updated lock-free, so it can be shared by all concurrent pollers.
+ * It is part of the concurrency snapshot when one is configured.
+ */
+public class WindowedConcurrencyControlTrigger<T> implements ConcurrencyControlTrigger<T>, SnapshotParticipant {
+    private static final String AVERAGE = "average";
+
+    /**
+     * Score of a single poller response, i.e: number of messages received
+     */
+    private final ToDoubleFunction<T> score;
+    /**
+     * Weight of each new response in the moving average, between 0 (exclusive) and 1 (inclusive).
+     * Lower values smooth more but react slower.
+     */
+    private final double alpha;
+    /**
+     * When the moving average is >= this value, a scale-up is triggered
+     */
+    private final double scaleUpThreshold;
+    /**
+     * When the moving average is <= this value, a scale-down is triggered
+     */
+    private final double scaleDownThreshold;
+    /**
+     * Minimum time in between two scale events
+     */
+    private final Duration cooldown;
+    /**
+     * Source of time in nanoseconds, defaults to {@link System#nanoTime()}
+     */
+    private final LongSupplier nanoClock;
+
+    private final AtomicLong average;
+    private final AtomicLong lastEventNanos;
+
+    @Builder
+    public WindowedConcurrencyControlTrigger(
+            ToDoubleFunction<T> score,
+            double alpha,
+            double scaleUpThreshold,
+            double scaleDownThreshold,
+            @Nullable Duration cooldown,
+            @Nullable LongSupplier nanoClock
+    ) {
+        if (score == null) {
+            throw new IllegalArgumentException("score must not be null");
+        }
+        if (alpha <= 0d || alpha > 1d) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        if (scaleDownThreshold >= scaleUpThreshold) {
+            throw new IllegalArgumentException("scaleDownThreshold must be lower than scaleUpThreshold");
+        }
+        this.score = score;
+        this.alpha = alpha;
+        this.scaleUpThreshold = scaleUpThreshold;
+        this.scaleDownThreshold = scaleDownThreshold;
+        this.cooldown = Optional.ofNullable(cooldown).orElse(Duration.ZERO);
+        this.nanoClock = Optional.ofNullable(nanoClock).orElse(System::nanoTime);
+        this.average = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+        this.lastEventNanos = new AtomicLong(this.nanoClock.getAsLong() - this.cooldown.toNanos());
+    }
+
+    @Override
+    public ConcurrencyControlOperation calculate(T pollerResponse) {
+        var sample = score.applyAsDouble(pollerResponse);
+        var current = Double.longBitsToDouble(average.updateAndGet(bits -> {
+            var previous = Double.longBitsToDouble(bits);
+            var next = Double.isNaN(previous) ? sample : previous + alpha * (sample - previous);
+            return Double.doubleToRawLongBits(next);
+        }));
+
+        var operation = current >= scaleUpThreshold ? ScaleUp
+                : current <= scaleDownThreshold ? ScaleDown
+                : Noop;
+        if (operation == Noop) {
+            return Noop;
+        }
+
+        var now = nanoClock.getAsLong();
+        var last = lastEventNanos.get();
+        if (now - last < cooldown.toNanos() || !lastEventNanos.compareAndSet(last, now)) {
+            return Noop;
+        }
+        return operation;
+    }
+
+    /**
+     * @return The current moving average of the score, or NaN if no response was seen yet
+     */
+    public double average() {
+        return Double.longBitsToDouble(average.get());
+    }
+
+    @Override
+    public Map<String, Double> stats() {
+        var current = average();
+        return Double.isNaN(current) ? Map.of() : Map.of(AVERAGE, current);
+    }
+
+    @Override
+    public void restore(Map<String, Double> stats) {
+        var restored = stats.get(AVERAGE);
+        if (restored != null) {
+            average.set(Double.doubleToRawLongBits(restored));
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Learned state of an adaptative poller, so it can resume from it after a restart
+ * @param concurrency The concurrency at the time of the snapshot
+ * @param stats Statistics of the strategy, i.e: moving averages. See {@link SnapshotParticipant}
+ * @param updatedAt When the snapshot was taken
+ */
+public record ConcurrencySnapshot(double concurrency, Map<String, Double> stats, Instant updatedAt) {
+    public ConcurrencySnapshot {
+        stats = Map.copyOf(stats);
+    }
+}
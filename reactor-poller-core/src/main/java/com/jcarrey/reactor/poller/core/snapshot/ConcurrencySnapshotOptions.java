@@ -0,0 +1,68 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import lombok.Builder;
+import lombok.Getter;
+import reactor.util.annotation.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@Getter
+public class ConcurrencySnapshotOptions {
+    /**
+     * Where snapshots are loaded from on subscription, and saved to periodically and on cancellation
+     */
+    private final ConcurrencySnapshotStore store;
+    /**
+     * How often the snapshot is saved while polling
+     */
+    private final Duration interval;
+    /**
+     * How fast an old snapshot loses relevance: the restored concurrency moves half way back
+     * to initialConcurrency for each half-life elapsed since the snapshot was saved.
+     */
+    private final Duration halfLife;
+    /**
+     * Clock used to timestamp and age snapshots
+     */
+    private final Clock clock;
+
+    @Builder
+    public ConcurrencySnapshotOptions(
+            ConcurrencySnapshotStore store,
+            @Nullable Duration interval,
+            @Nullable Duration halfLife,
+            @Nullable Clock clock
+    ) {
+        if (store == null) {
+            throw new IllegalArgumentException("store must not be null");
+        }
+        this.store = store;
+        this.interval = Optional.ofNullable(interval).orElse(Duration.ofSeconds(30));
+        this.halfLife = Optional.ofNullable(halfLife).orElse(Duration.ofMinutes(10));
+        this.clock = Optional.ofNullable(clock).orElse(Clock.systemUTC());
+        if (this.interval.isZero() || this.interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        if (this.halfLife.isZero() || this.halfLife.isNegative()) {
+            throw new IllegalArgumentException("halfLife must be positive");
+        }
+    }
+
+    /**
+     * Calculates the concurrency to resume from
+     * @param snapshot The restored snapshot
+     * @param initialConcurrency The concurrency the snapshot decays towards
+     * @param minConcurrency The minimum concurrency
+     * @param maxConcurrency The maximum concurrency
+     * @return The snapshot concurrency decayed by its age, and kept between min and max
+     */
+    public double resumeConcurrency(ConcurrencySnapshot snapshot, double initialConcurrency, double minConcurrency, double maxConcurrency) {
+        var age = Duration.between(snapshot.updatedAt(), Instant.now(clock));
+        var halfLives = Math.max(0d, (double) age.toMillis() / halfLife.toMillis());
+        var decayed = initialConcurrency + (snapshot.concurrency() - initialConcurrency) * Math.pow(0.5d, halfLives);
+        return Math.min(Math.max(decayed, minConcurrency), maxConcurrency);
+    }
+}
@@ -0,0 +1,20 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import java.util.Optional;
+
+/**
+ * Persists {@link ConcurrencySnapshot} so pollers resume from the learned concurrency across restarts.
+ * Both methods are called from reactor threads, so implementations should be fast, i.e: a small local file.
+ */
+public interface ConcurrencySnapshotStore {
+    /**
+     * @return The last saved snapshot, or empty if there is none
+     */
+    Optional<ConcurrencySnapshot> load();
+
+    /**
+     * Saves the snapshot, replacing the previous one
+     * @param snapshot The snapshot to save
+     */
+    void save(ConcurrencySnapshot snapshot);
+}
@@ -0,0 +1,85 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Stores the snapshot as a properties file. Writes go to a temporary file that is then atomically moved,
+ * so a crash while saving never leaves a corrupt snapshot behind.
+ */
+@Slf4j
+public class FileConcurrencySnapshotStore implements ConcurrencySnapshotStore {
+    private static final String CONCURRENCY = "concurrency";
+    private static final String UPDATED_AT = "updatedAt";
+    private static final String STATS_PREFIX = "stats.";
+
+    private final Path file;
+
+    public FileConcurrencySnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public Optional<ConcurrencySnapshot> load() {
+        var properties = new Properties();
+        try (var reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        } catch (NoSuchFileException notFound) {
+            return Optional.empty();
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+
+        try {
+            var stats = new HashMap<String, Double>();
+            for (var key : properties.stringPropertyNames()) {
+                if (key.startsWith(STATS_PREFIX)) {
+                    stats.put(key.substring(STATS_PREFIX.length()), Double.parseDouble(properties.getProperty(key)));
+                }
+            }
+            return Optional.of(new ConcurrencySnapshot(
+                    Double.parseDouble(properties.getProperty(CONCURRENCY)),
+                    stats,
+                    Instant.ofEpochMilli(Long.parseLong(properties.getProperty(UPDATED_AT)))
+            ));
+        } catch (RuntimeException malformed) {
+            log.warn("Ignoring malformed concurrency snapshot {}", file, malformed);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(ConcurrencySnapshot snapshot) {
+        var properties = new Properties();
+        properties.setProperty(CONCURRENCY, Double.toString(snapshot.concurrency()));
+        properties.setProperty(UPDATED_AT, Long.toString(snapshot.updatedAt().toEpochMilli()));
+        snapshot.stats().forEach((key, value) -> properties.setProperty(STATS_PREFIX + key, Double.toString(value)));
+
+        try {
+            var parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            var temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try {
+                try (var writer = Files.newBufferedWriter(temporary)) {
+                    properties.store(writer, null);
+                }
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                // Only left behind when writing or moving it failed
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+}
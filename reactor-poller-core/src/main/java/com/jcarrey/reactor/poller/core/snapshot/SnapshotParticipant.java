@@ -0,0 +1,20 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import java.util.Map;
+
+/**
+ * Implemented by strategies that learn some state (i.e: moving averages) which should be part of
+ * the {@link ConcurrencySnapshot}, so they don't start from scratch after a restart.
+ */
+public interface SnapshotParticipant {
+    /**
+     * @return The current statistics to save
+     */
+    Map<String, Double> stats();
+
+    /**
+     * Restores previously saved statistics
+     * @param stats The statistics returned by {@link #stats()} when the snapshot was taken
+     */
+    void restore(Map<String, Double> stats);
+}
@@ -0,0 +1,111 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class AsyncPollerTests {
+
+    private final ConcurrencyControlOptions<Integer> options = ConcurrencyControlOptions.<Integer>builder()
+            .initialConcurrency(1)
+            .minConcurrency(1)
+            .maxConcurrency(5)
+            .strategy(__ -> ScaleUp)
+            .scaleUpFn((current, op) -> 1d)
+            .build();
+
+    @Test
+    public void reusesCallbacksAcrossPolls() {
+        var counter = new AtomicInteger();
+        var callbacks = ConcurrentHashMap.newKeySet();
+        AsyncPoller<Integer> poller = callback -> {
+            callbacks.add(callback);
+            CompletableFuture.supplyAsync(counter::incrementAndGet, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS))
+                    .whenComplete(callback);
+        };
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(200)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        // Bounded by the concurrency, plus slots in hand of completing threads while others dispatch
+        Assertions.assertTrue(callbacks.size() <= 10, "Callbacks were " + callbacks.size());
+    }
+
+    @Test
+    public void keepsPollingOnErrorsAndEmptyPolls() {
+        var counter = new AtomicInteger();
+        AsyncPoller<Integer> poller = AsyncPoller.fromCompletionStage(() -> {
+            var value = counter.incrementAndGet();
+            if (value % 3 == 0) {
+                return CompletableFuture.failedFuture(new RuntimeException());
+            }
+            return CompletableFuture.completedFuture(value % 3 == 1 ? null : value);
+        });
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options).publishOn(Schedulers.parallel()))
+                .expectNext(2, 5, 8, 11)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void synchronousEmptyPollsDoNotRecurse() {
+        var counter = new AtomicInteger();
+        AsyncPoller<Integer> poller = callback -> {
+            var value = counter.incrementAndGet();
+            callback.complete(value > 50_000 ? value : null);
+        };
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify(Duration.ofSeconds(30));
+    }
+
+    @Test
+    public void ignoresFailuresThrownAfterCompletion() {
+        var fixed = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(1)
+                .minConcurrency(1)
+                .maxConcurrency(1)
+                .strategy(__ -> ScaleUp)
+                .scaleUpFn((current, op) -> 1d)
+                .build();
+        var counter = new AtomicInteger();
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        AsyncPoller<Integer> poller = callback -> {
+            var value = counter.incrementAndGet();
+            if (value % 2 == 1) {
+                callback.complete(value);
+                throw new IllegalStateException("Failed after completing");
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS))
+                    .thenRun(() -> {
+                        inFlight.decrementAndGet();
+                        callback.complete(value);
+                    });
+        };
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, fixed))
+                .expectNextCount(100)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, maxInFlight.get());
+    }
+}
@@ -0,0 +1,80 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class BufferingPolicyTests {
+
+    private static final int PAYLOAD_SIZE = 100;
+
+    /**
+     * Polls in flight plus elements waiting in the sink to be delivered downstream
+     */
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger maxOutstanding = new AtomicInteger();
+
+    @Test
+    public void boundsBufferedElementsAndInFlightPolls() {
+        var buffering = BufferingPolicy.<String>builder()
+                .maxBufferedElements(3L)
+                .build();
+
+        StepVerifier.create(slowConsumer(buffering))
+                .expectNextCount(50)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertTrue(maxOutstanding.get() <= 3, "Outstanding was " + maxOutstanding.get());
+    }
+
+    @Test
+    public void resumesPollingAfterBufferedBytesAreDelivered() {
+        var buffering = BufferingPolicy.<String>builder()
+                .maxBufferedBytes(2L * PAYLOAD_SIZE)
+                .sizeEstimator(String::length)
+                .build();
+
+        StepVerifier.create(slowConsumer(buffering))
+                .expectNextCount(50)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void sizeEstimatorIsRequiredForBytes() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BufferingPolicy.<String>builder()
+                .maxBufferedBytes(1L)
+                .build());
+    }
+
+    private Flux<String> slowConsumer(BufferingPolicy<String> buffering) {
+        Poller<String> poller = () -> Mono.fromSupplier(() -> {
+                    maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+                    return "x".repeat(PAYLOAD_SIZE);
+                })
+                .delayElement(Duration.ofMillis(1));
+
+        var options = ConcurrencyControlOptions.<String>builder()
+                .initialConcurrency(10)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(__ -> ScaleUp)
+                .buffering(buffering)
+                .build();
+
+        return ReactorPoller.adaptative(poller, options)
+                .doOnNext(__ -> outstanding.decrementAndGet())
+                .limitRate(4)
+                .concatMap(el -> Mono.delay(Duration.ofMillis(5)).thenReturn(el), 1);
+    }
+}
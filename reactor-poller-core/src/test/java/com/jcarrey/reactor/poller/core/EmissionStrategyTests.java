@@ -0,0 +1,99 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+
+@Slf4j
+public class EmissionStrategyTests {
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private final Map<PollCallback<Integer>, Set<String>> threadsPerSlot = new ConcurrentHashMap<>();
+    private final Map<Integer, PollCallback<Integer>> slotPerElement = new ConcurrentHashMap<>();
+
+    private final Executor io = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "io"));
+    private final AsyncPoller<Integer> poller = callback -> {
+        var value = counter.incrementAndGet();
+        slotPerElement.put(value, callback);
+        CompletableFuture.supplyAsync(() -> value, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS, io))
+                .whenComplete(callback);
+    };
+
+    @Test
+    public void immediateEmitsOnCompletingThread() {
+        StepVerifier.create(pipeline(EmissionStrategy.immediate()))
+                .expectNextCount(20)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(Set.of("io"), allThreads());
+    }
+
+    @Test
+    public void schedulerEmitsOnScheduler() {
+        var scheduler = Schedulers.newSingle("emission");
+        StepVerifier.create(pipeline(EmissionStrategy.on(scheduler)))
+                .expectNextCount(20)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertTrue(allThreads().stream().allMatch(thread -> thread.startsWith("emission")));
+        scheduler.dispose();
+    }
+
+    @Test
+    public void pinnedEmitsEachSlotOnTheSameWorker() {
+        var scheduler = Schedulers.newParallel("emission", 4);
+        StepVerifier.create(pipeline(EmissionStrategy.pinned(scheduler)))
+                .expectNextCount(100)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertTrue(threadsPerSlot.values().stream().allMatch(threads -> threads.size() == 1));
+        Assertions.assertTrue(allThreads().stream().allMatch(thread -> thread.startsWith("emission")));
+        scheduler.dispose();
+    }
+
+    private Flux<Integer> pipeline(EmissionStrategy emission) {
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(4)
+                .minConcurrency(1)
+                .maxConcurrency(4)
+                .strategy(this::recordThread)
+                .emission(emission)
+                .build();
+        return ReactorPoller.adaptative(poller, options);
+    }
+
+    /**
+     * The strategy runs where the element is handled. Downstream delivery may still happen on another
+     * emitting thread, as the sink serializes emissions.
+     */
+    private ConcurrencyControlOperation recordThread(Integer value) {
+        threadsPerSlot.computeIfAbsent(slotPerElement.get(value), __ -> ConcurrentHashMap.newKeySet())
+                .add(Thread.currentThread().getName());
+        return Noop;
+    }
+
+    private Set<String> allThreads() {
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        threadsPerSlot.values().forEach(threads::addAll);
+        return threads;
+    }
+}
@@ -3,8 +3,11 @@ package com.jcarrey.reactor.poller.core;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunction;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyController;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyForecast;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +19,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
@@ -182,4 +186,114 @@ public class NoLockingConcurrencyTests {
         Mockito.verify(scaleUp, atLeastOnce()).calculateDelta(7, ScaleUp);
         Mockito.verify(scaleUp, never()).calculateDelta(8, ScaleUp);
     }
+
+    @Test
+    public void controllerTakesPrecedenceOverStrategy(@Mock ConcurrencyController<Integer> controller) {
+        Mockito.when(controller.calculate(anyDouble(), anyDouble(), anyDouble(), anyInt())).thenReturn(100d);
+
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(5)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(strategy)
+                .controller(controller)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        Mockito.verify(controller, atLeastOnce()).calculate(5d, 1d, 10d, 1);
+        Mockito.verify(controller, atLeastOnce()).calculate(10d, 1d, 10d, 1);
+        Mockito.verify(controller, never()).calculate(100d, 1d, 10d, 1);
+        Mockito.verifyNoInteractions(strategy);
+    }
+
+    @Test
+    public void forecastRaisesMinimumConcurrency(@Mock ConcurrencyForecast<Integer> forecast) {
+        Mockito.when(forecast.floor(1d, 10d)).thenReturn(8d);
+        Mockito.when(strategy.calculate(1)).thenReturn(ScaleDown);
+
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(5)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(strategy)
+                .scaleUpFn(scaleUp)
+                .scaleDownFn(scaleDown)
+                .forecast(forecast)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        Mockito.verify(forecast, atLeastOnce()).record(1);
+        Mockito.verify(strategy, atLeastOnce()).calculate(1);
+        Mockito.verifyNoInteractions(scaleDown);
+    }
+
+    @Test
+    public void saturationStopsScaleUps() {
+        Mockito.when(strategy.calculate(1)).thenReturn(ScaleUp);
+        var saturated = new AtomicBoolean(true);
+
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(5)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(strategy)
+                .scaleUpFn(scaleUp)
+                .scaleDownFn(scaleDown)
+                .saturated(saturated::get)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        Mockito.verify(strategy, atLeastOnce()).calculate(1);
+        Mockito.verifyNoInteractions(scaleUp);
+    }
+
+    @Test
+    public void saturationStopsControllerRaises(@Mock ConcurrencyController<Integer> controller) {
+        Mockito.when(controller.calculate(anyDouble(), anyDouble(), anyDouble(), anyInt())).thenReturn(10d);
+        var control = new AdaptativeConcurrencyControl<>(poller, ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(5)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .controller(controller)
+                .saturated(() -> true)
+                .build());
+
+        StepVerifier.create(Flux.create(control))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        Mockito.verify(controller, atLeastOnce()).calculate(anyDouble(), anyDouble(), anyDouble(), anyInt());
+        Assertions.assertEquals(5d, control.concurrency());
+    }
+
+    @Test
+    public void constructorDefaultsTheOptionsAddedLater() {
+        var options = new ConcurrencyControlOptions<Integer>(5, 1, 10, strategy, scaleUp, scaleDown, ConcurrencyLockMechanism.None);
+
+        StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        Assertions.assertNull(options.getController());
+        Assertions.assertNull(options.getRelease());
+        Assertions.assertNull(options.getSaturated());
+        Assertions.assertEquals(EmissionStrategy.immediate().getClass(), options.getEmission().getClass());
+    }
 }
@@ -0,0 +1,64 @@
+package com.jcarrey.reactor.poller.core;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class ParallelPollerTests {
+
+    @Test
+    public void splitsConcurrencyAcrossRails() {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        Poller<Integer> poller = () -> Mono.fromSupplier(() -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(5))
+                .doOnNext(__ -> inFlight.decrementAndGet());
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(4)
+                .minConcurrency(1)
+                .maxConcurrency(8)
+                .strategy(__ -> ScaleUp)
+                .scaleUpFn((current, op) -> Double.MAX_VALUE)
+                .build();
+
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        var pipeline = ReactorPoller.adaptativeParallel(poller, options, 4, Schedulers.parallel())
+                .doOnNext(__ -> threads.add(Thread.currentThread().getName()))
+                .sequential();
+
+        StepVerifier.create(pipeline)
+                .expectNextCount(200)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(8, maxInFlight.get());
+        Assertions.assertEquals(Math.min(4, Schedulers.DEFAULT_POOL_SIZE), threads.size());
+    }
+
+    @Test
+    public void splitOptionsKeepBounds() {
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(3)
+                .minConcurrency(2)
+                .maxConcurrency(10)
+                .buffering(BufferingPolicy.<Integer>builder().maxBufferedElements(100L).build())
+                .build()
+                .split(4);
+
+        Assertions.assertEquals(1d, options.getMinConcurrency());
+        Assertions.assertEquals(2.5d, options.getMaxConcurrency());
+        Assertions.assertEquals(1d, options.getInitialConcurrency());
+        Assertions.assertEquals(25L, options.getBuffering().getMaxBufferedElements());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> options.split(3));
+    }
+}
@@ -57,10 +57,21 @@ public class PerformanceTests {
                 Arguments.of("immediate-pessimistic", pipeline(Schedulers.immediate(), ConcurrencyLockMechanism.Pessimistic)),
                 Arguments.of("parallel-none", pipeline(Schedulers.parallel(), ConcurrencyLockMechanism.None)),
                 Arguments.of("boundedElastic-none", pipeline(Schedulers.boundedElastic(), ConcurrencyLockMechanism.None)),
-                Arguments.of("immediate-none", pipeline(Schedulers.immediate(), ConcurrencyLockMechanism.None))
+                Arguments.of("immediate-none", pipeline(Schedulers.immediate(), ConcurrencyLockMechanism.None)),
+                Arguments.of("parallel-rails-none", ReactorPoller.adaptativeParallel(poller(Schedulers.parallel()), opts(ConcurrencyLockMechanism.None), 4).sequential()),
+                Arguments.of("emission-immediate", pipeline(EmissionStrategy.immediate())),
+                Arguments.of("emission-parallel", pipeline(EmissionStrategy.on(Schedulers.parallel()))),
+                Arguments.of("emission-pinned-parallel", pipeline(EmissionStrategy.pinned(Schedulers.parallel())))
         );
     }
 
+    private static Flux<Integer> pipeline(EmissionStrategy emission) {
+        var options = opts(ConcurrencyLockMechanism.None).toBuilder()
+                .emission(emission)
+                .build();
+        return ReactorPoller.adaptative(poller(Schedulers.immediate()), options);
+    }
+
     private static Flux<Integer> pipeline(Scheduler scheduler, ConcurrencyLockMechanism lockMechanism) {
         return ReactorPoller.adaptative(poller(scheduler), opts(lockMechanism));
     }
@@ -0,0 +1,166 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+
+@Slf4j
+public class PollerControlTests {
+    private final AtomicInteger polls = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Poller<Integer> poller = () -> Mono.fromSupplier(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                return polls.incrementAndGet();
+            })
+            .delayElement(Duration.ofMillis(5))
+            .doOnNext(__ -> inFlight.decrementAndGet());
+
+    @Test
+    public void boundsChangeWithoutResubscribing() throws InterruptedException {
+        var controlled = ReactorPoller.adaptativeControlled(poller, options());
+        var received = new AtomicInteger();
+        var subscription = controlled.flux().subscribe(__ -> received.incrementAndGet());
+        try {
+            await(() -> received.get() >= 50);
+            Assertions.assertEquals(10, maxInFlight.get());
+
+            controlled.control().bounds(1, 2);
+            // Polls in flight when lowering the bounds complete normally
+            await(() -> inFlight.get() <= 2);
+            maxInFlight.set(0);
+            var before = received.get();
+            await(() -> received.get() >= before + 50);
+
+            Assertions.assertTrue(maxInFlight.get() <= 2, "In flight " + maxInFlight.get());
+            Assertions.assertEquals(2d, controlled.control().options().getMaxConcurrency());
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    public void pinsConcurrencyUntilUnpinned() throws InterruptedException {
+        var controlled = ReactorPoller.adaptativeControlled(poller, options());
+        var received = new AtomicInteger();
+        var subscription = controlled.flux().subscribe(__ -> received.incrementAndGet());
+        try {
+            await(() -> received.get() >= 10);
+            controlled.control().pin(0);
+            await(() -> inFlight.get() == 0);
+            var paused = polls.get();
+            Thread.sleep(50);
+            Assertions.assertEquals(paused, polls.get(), "Polled while pinned to 0");
+
+            controlled.control().unpin();
+            await(() -> polls.get() >= paused + 10);
+            Assertions.assertNull(controlled.control().pinned());
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    @Test
+    public void emissionCannotChangeAtRuntime() {
+        var controlled = ReactorPoller.adaptativeControlled(poller, options());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> controlled.control().update(current -> current.toBuilder()
+                .emission(EmissionStrategy.on(Schedulers.parallel()))
+                .build()));
+        Assertions.assertEquals(EmissionStrategy.immediate(), controlled.control().options().getEmission());
+    }
+
+    @Test
+    public void drainReleasesInFlightPollsAndCompletes() throws InterruptedException {
+        var released = new ConcurrentLinkedQueue<Integer>();
+        var controlled = ReactorPoller.adaptativeControlled(poller, options().toBuilder().release(released::add).build());
+        var received = new AtomicInteger();
+        var completed = new CountDownLatch(1);
+        controlled.flux().subscribe(__ -> received.incrementAndGet(), error -> {}, completed::countDown);
+        await(() -> received.get() >= 20);
+
+        Assertions.assertTrue(controlled.control().drain(Duration.ofSeconds(5)).block());
+
+        Assertions.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, inFlight.get());
+        Assertions.assertFalse(released.isEmpty());
+        Assertions.assertEquals(polls.get(), received.get() + released.size());
+        var drained = polls.get();
+        Thread.sleep(20);
+        Assertions.assertEquals(drained, polls.get(), "Polled after draining");
+        Assertions.assertTrue(controlled.control().draining());
+    }
+
+    @Test
+    public void cancelReleasesInFlightPolls() throws InterruptedException {
+        var released = new ConcurrentLinkedQueue<Integer>();
+        var controlled = ReactorPoller.adaptativeControlled(poller, options().toBuilder().release(released::add).build());
+        var received = new AtomicInteger();
+        var subscription = controlled.flux().subscribe(__ -> received.incrementAndGet());
+        await(() -> received.get() >= 20);
+
+        subscription.dispose();
+
+        await(() -> inFlight.get() == 0);
+        Assertions.assertFalse(released.isEmpty());
+        Assertions.assertEquals(polls.get(), received.get() + released.size());
+    }
+
+    @Test
+    public void drainCompletesAtTheDeadlineAndReleasesLateResults() throws InterruptedException {
+        var pending = new ConcurrentLinkedQueue<CompletableFuture<Integer>>();
+        var released = new ConcurrentLinkedQueue<Integer>();
+        Poller<Integer> hanging = () -> {
+            var future = new CompletableFuture<Integer>();
+            pending.add(future);
+            return Mono.fromFuture(future);
+        };
+        var controlled = ReactorPoller.adaptativeControlled(hanging, options().toBuilder().release(released::add).build());
+        var received = new AtomicInteger();
+        var completed = new CountDownLatch(1);
+        var subscription = controlled.flux().subscribe(__ -> received.incrementAndGet(), error -> {}, completed::countDown);
+        try {
+            await(() -> pending.size() == 10);
+
+            Assertions.assertFalse(controlled.control().drain(Duration.ofMillis(50)).block());
+
+            Assertions.assertTrue(completed.await(1, TimeUnit.SECONDS), "Not completed at the deadline");
+            pending.forEach(future -> future.complete(1));
+            await(() -> released.size() == 10);
+            Assertions.assertEquals(0, received.get());
+            Assertions.assertEquals(10, pending.size(), "Polled after draining");
+        } finally {
+            subscription.dispose();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    private ConcurrencyControlOptions<Integer> options() {
+        return ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(10)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(__ -> Noop)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.jcarrey.reactor.poller.core;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class PollerEventsTests {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void recordsPollsAndConcurrencyChanges() throws Exception {
+        var counter = new AtomicInteger();
+        Poller<Integer> poller = () -> Mono.fromSupplier(counter::incrementAndGet)
+                .flatMap(value -> value % 5 == 0 ? Mono.error(new RuntimeException()) : Mono.just(value));
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(1)
+                .minConcurrency(1)
+                .maxConcurrency(3)
+                .strategy(__ -> ScaleUp)
+                .scaleUpFn((current, op) -> 1d)
+                .build();
+
+        var file = directory.resolve("poller.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(PollEvent.class).withoutThreshold();
+            recording.enable(ConcurrencyChangeEvent.class);
+            recording.enable(SinkBacklogEvent.class);
+            recording.start();
+
+            StepVerifier.create(ReactorPoller.adaptative(poller, options).delayElements(Duration.ofMillis(10)), 1)
+                    .thenRequest(10)
+                    .expectNextCount(10)
+                    .thenCancel()
+                    .verify();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        var events = RecordingFile.readAllEvents(file);
+        var outcomes = ofType(events, "com.jcarrey.reactor.poller.Poll").stream()
+                .map(event -> event.getString("outcome"))
+                .collect(Collectors.toSet());
+        Assertions.assertTrue(outcomes.contains(PollEvent.SUCCESS));
+        Assertions.assertTrue(outcomes.contains(PollEvent.ERROR));
+
+        var changes = ofType(events, "com.jcarrey.reactor.poller.ConcurrencyChange");
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(1d, changes.get(0).getDouble("from"));
+        Assertions.assertEquals(2d, changes.get(0).getDouble("to"));
+        Assertions.assertEquals("ScaleUp", changes.get(0).getString("operation"));
+
+        var backlog = ofType(events, "com.jcarrey.reactor.poller.SinkBacklog");
+        Assertions.assertFalse(backlog.isEmpty());
+        Assertions.assertTrue(backlog.stream().allMatch(event -> event.getLong("buffered") >= 0));
+    }
+
+    @Test
+    public void recordsNoChangeWhenTheControllerKeepsTheConcurrency() throws Exception {
+        var counter = new AtomicInteger();
+        Poller<Integer> poller = () -> Mono.fromSupplier(counter::incrementAndGet);
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(2)
+                .minConcurrency(1)
+                .maxConcurrency(3)
+                .controller((current, min, max, element) -> current)
+                .build();
+
+        var file = directory.resolve("poller.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(ConcurrencyChangeEvent.class);
+            recording.start();
+
+            StepVerifier.create(ReactorPoller.adaptative(poller, options))
+                    .expectNextCount(50)
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Assertions.assertEquals(List.of(), ofType(RecordingFile.readAllEvents(file), "com.jcarrey.reactor.poller.ConcurrencyChange"));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,132 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+
+@Slf4j
+public class SharedPollerTests {
+    private final AtomicInteger polls = new AtomicInteger();
+    private final Poller<Integer> poller = () -> Mono.fromSupplier(polls::incrementAndGet)
+            .delayElement(Duration.ofMillis(1));
+
+    @Test
+    public void eachSubscriptionHasItsOwnState() {
+        var flux = ReactorPoller.adaptative(poller, options());
+
+        var both = Mono.zip(flux.take(20).collectList(), flux.take(20).collectList())
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(20, both.getT1().size());
+        Assertions.assertEquals(20, both.getT2().size());
+    }
+
+    @Test
+    public void resubscribesWithFreshState() {
+        StepVerifier.create(ReactorPoller.adaptative(poller, options()).take(10).repeat(2))
+                .expectNextCount(30)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void consumerGroupDistributesElementsWithoutDuplicatePolls() {
+        var group = ReactorPoller.adaptativeShared(poller, options());
+
+        var consumed = Flux.merge(group.take(50), group.take(50), group.take(50))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(150, consumed.size());
+        Assertions.assertEquals(150, new HashSet<>(consumed).size(), "An element was delivered twice");
+        // Only the in-flight polls when the last consumer left are not delivered
+        Assertions.assertTrue(polls.get() <= 150 + 5, "Polled %s for 150 elements".formatted(polls.get()));
+    }
+
+    @Test
+    public void consumerGroupAggregatesDemand() {
+        var group = ReactorPoller.adaptativeShared(poller, options());
+
+        StepVerifier.create(Flux.merge(group.limitRate(1).take(10), group.limitRate(1).take(10)).collectList())
+                .expectNextMatches(consumed -> new HashSet<>(consumed).size() == 20)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void consumerGroupRestartsAfterLastConsumerLeaves() {
+        var group = ReactorPoller.adaptativeShared(poller, options());
+
+        List<Integer> first = group.take(10).collectList().block(Duration.ofSeconds(5));
+        List<Integer> second = group.take(10).collectList().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(10, first.size());
+        Assertions.assertEquals(10, second.size());
+        Assertions.assertTrue(second.stream().allMatch(value -> value > first.get(9)));
+    }
+
+    @Test
+    public void consumerGroupReleasesUndeliveredElementsOnCancel() throws InterruptedException {
+        var released = new ConcurrentLinkedQueue<Integer>();
+        var group = ReactorPoller.adaptativeShared(poller, options().toBuilder().release(released::add).build());
+        var delivered = new ConcurrentLinkedQueue<Integer>();
+        // Keeps the group alive without any demand, so elements requested for the other member are queued
+        var idle = group.subscribe(delivered::add, error -> {}, () -> {}, subscription -> {});
+        group.subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(20);
+            }
+
+            @Override
+            protected void hookOnNext(Integer value) {
+                delivered.add(value);
+                cancel();
+            }
+        });
+        Thread.sleep(100);
+
+        idle.dispose();
+        Thread.sleep(100);
+
+        Assertions.assertEquals(1, delivered.size());
+        Assertions.assertFalse(released.isEmpty());
+        Assertions.assertEquals(polls.get(), delivered.size() + released.size(), "An element was lost");
+    }
+
+    @Test
+    public void consumerGroupTerminatesMembersJoiningWhileItCompletes() {
+        for (int i = 0; i < 1_000; i++) {
+            var group = new ConsumerGroupFlux<Integer>(Flux.<Integer>empty().subscribeOn(Schedulers.parallel()), element -> {});
+
+            StepVerifier.create(Flux.merge(group, group.subscribeOn(Schedulers.parallel())))
+                    .expectComplete()
+                    .verify(Duration.ofSeconds(5));
+        }
+    }
+
+    private ConcurrencyControlOptions<Integer> options() {
+        return ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(5)
+                .minConcurrency(1)
+                .maxConcurrency(5)
+                .strategy(__ -> Noop)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.jcarrey.reactor.poller.core;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTriggers;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyLockMechanism;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Long-running load test, only run with the soak profile: {@code mvn test -Psoak -Dsoak.duration=PT4H}
+ * <p>
+ * Polls take messages out of a synthetic queue that never runs dry, so throughput is bounded by the poller and not
+ * by the source. Polls take jittered latency, fail or come back empty from time to time. The maximum concurrency
+ * is about what a single core sustains, so the poller overhead shows in the throughput. Measurements are compared against soak-baseline.properties with {@code soak.tolerance},
+ * and written to target/soak-results.properties so baselines can be re-recorded.
+ */
+@Slf4j
+@Tag("soak")
+public class SoakTests {
+    private static final Duration DURATION = Duration.parse(System.getProperty("soak.duration", "PT1M"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("soak.warmup", "PT10S"));
+    private static final double TOLERANCE = Double.parseDouble(System.getProperty("soak.tolerance", "0.25"));
+
+    private static final int BATCH_SIZE = 10;
+    private static final long MIN_LATENCY_MS = 10;
+    private static final long MAX_LATENCY_MS = 40;
+    private static final double ERROR_RATE = 0.01;
+    private static final double EMPTY_RATE = 0.01;
+    private static final double MAX_CONCURRENCY = 5000;
+
+    private final AtomicLong delivered = new AtomicLong();
+
+    @Test
+    public void shouldSustainThroughputWithoutLeaking() throws Exception {
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(1)
+                .minConcurrency(1)
+                .maxConcurrency(MAX_CONCURRENCY)
+                .strategy(ConcurrencyControlTriggers.windowed(Integer::doubleValue, 0.05, BATCH_SIZE * 0.9, BATCH_SIZE * 0.5, Duration.ofMillis(50)))
+                .scaleUpFn((c, op) -> c * 1.25 + 1)
+                .scaleDownFn((c, op) -> c * 0.8)
+                .lockMechanism(ConcurrencyLockMechanism.None)
+                .build();
+        var control = new AdaptativeConcurrencyControl<>(this::poll, options);
+
+        var throughput = new ArrayList<Double>();
+        var concurrency = new ArrayList<Double>();
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        var lastDelivered = new AtomicLong();
+        var subscription = Flux.create(control)
+                .subscribe(delivered::addAndGet);
+        try {
+            Thread.sleep(WARMUP.toMillis());
+            var start = Resources.measure();
+            lastDelivered.set(delivered.get());
+            sampler.scheduleAtFixedRate(() -> {
+                var current = delivered.get();
+                throughput.add((double) (current - lastDelivered.getAndSet(current)));
+                concurrency.add(control.concurrency());
+            }, 1, 1, TimeUnit.SECONDS);
+
+            Thread.sleep(DURATION.toMillis());
+            sampler.shutdown();
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+            var end = Resources.measure();
+
+            report(start, end, throughput, concurrency);
+        } finally {
+            sampler.shutdownNow();
+            subscription.dispose();
+        }
+
+        // In-flight polls complete after cancelling, and must all be accounted for
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (control.pendingRequests() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, control.pendingRequests(), "Pending requests leaked after cancel");
+    }
+
+    private void report(Resources start, Resources end, List<Double> throughput, List<Double> concurrency) throws IOException {
+        var messages = throughput.stream().mapToDouble(Double::doubleValue).sum();
+        var minutes = throughput.size() / 60d;
+        var half = throughput.size() / 2;
+
+        var results = new Properties();
+        results.setProperty("throughput.p5.min", format(percentile(throughput, 0.05)));
+        results.setProperty("throughput.p50.min", format(percentile(throughput, 0.5)));
+        results.setProperty("throughput.decay.max", format(1 - percentile(throughput.subList(half, throughput.size()), 0.5)
+                / percentile(throughput.subList(0, half), 0.5)));
+        results.setProperty("allocation.bytesPerMessage.max", format((end.allocatedBytes - start.allocatedBytes) / messages));
+        results.setProperty("gc.countPerMinute.max", format((end.gcCount - start.gcCount) / minutes));
+        results.setProperty("gc.timeMsPerMinute.max", format((end.gcTimeMs - start.gcTimeMs) / minutes));
+        results.setProperty("heap.growthBytes.max", format(end.heapUsedBytes - start.heapUsedBytes));
+        results.setProperty("concurrency.cv.max", format(coefficientOfVariation(concurrency)));
+        log.debug("Concurrency per second: {}", concurrency);
+        log.info("Soak run of {} after {} warmup: {}", DURATION, WARMUP, results);
+
+        Files.createDirectories(Path.of("target"));
+        try (OutputStream out = Files.newOutputStream(Path.of("target", "soak-results.properties"))) {
+            results.store(out, "Soak results, duration " + DURATION);
+        }
+
+        var baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/soak-baseline.properties")) {
+            baseline.load(in);
+        }
+        var failures = new ArrayList<String>();
+        baseline.stringPropertyNames().forEach(key -> {
+            var expected = Double.parseDouble(baseline.getProperty(key));
+            var actual = Double.parseDouble(results.getProperty(key));
+            var regressed = key.endsWith(".min")
+                    ? actual < expected * (1 - TOLERANCE)
+                    : actual > expected * (1 + TOLERANCE);
+            if (regressed) {
+                failures.add("%s=%s (baseline %s)".formatted(key, actual, expected));
+            }
+        });
+        assertTrue(failures.isEmpty(), "Regressions against baseline: " + failures);
+    }
+
+    /**
+     * Takes a full batch out of a queue that never runs dry
+     */
+    private Mono<Integer> poll() {
+        var random = ThreadLocalRandom.current();
+        var latency = random.nextLong(MIN_LATENCY_MS, MAX_LATENCY_MS + 1);
+        return Mono.delay(Duration.ofMillis(latency), Schedulers.parallel())
+                .flatMap(__ -> {
+                    var outcome = ThreadLocalRandom.current().nextDouble();
+                    if (outcome < ERROR_RATE) {
+                        return Mono.error(new IllegalStateException("Synthetic poll failure"));
+                    }
+                    return Mono.just(outcome < ERROR_RATE + EMPTY_RATE ? 0 : BATCH_SIZE);
+                });
+    }
+
+    private static double percentile(List<Double> values, double percentile) {
+        var sorted = values.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))];
+    }
+
+    private static double coefficientOfVariation(List<Double> values) {
+        var stats = values.stream().mapToDouble(Double::doubleValue).summaryStatistics();
+        var mean = stats.getAverage();
+        var variance = values.stream().mapToDouble(v -> (v - mean) * (v - mean)).sum() / Math.max(1, values.size());
+        return mean == 0 ? 0 : Math.sqrt(variance) / mean;
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+    private record Resources(long allocatedBytes, long gcCount, long gcTimeMs, long heapUsedBytes) {
+
+        /**
+         * Allocations are summed over live threads, so bytes allocated by threads that died in between are missed.
+         * Reactor's schedulers keep their threads alive, so that is mostly the test's own short-lived threads.
+         */
+        static Resources measure() {
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            var allocated = Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+                    .filter(bytes -> bytes > 0)
+                    .sum();
+            var gcCount = 0L;
+            var gcTime = 0L;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, gc.getCollectionCount());
+                gcTime += Math.max(0, gc.getCollectionTime());
+            }
+            System.gc();
+            var heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            return new Resources(allocated, gcCount, gcTime, heapUsed);
+        }
+    }
+}
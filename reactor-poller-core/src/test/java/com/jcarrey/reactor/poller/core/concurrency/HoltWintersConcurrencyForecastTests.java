@@ -0,0 +1,99 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@ExtendWith({MockitoExtension.class})
+public class HoltWintersConcurrencyForecastTests {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    public void floorIsMinUntilSeasonObserved() {
+        var forecast = forecast();
+        observe(forecast, 0, 3);
+        Assertions.assertEquals(1d, forecast.floor(1, 50));
+        Assertions.assertTrue(Double.isNaN(forecast.forecastRate()));
+    }
+
+    @Test
+    public void raisesFloorAheadOfBursts() {
+        var forecast = forecast();
+        observe(forecast, 0, 10);
+
+        at(11); // Bucket 3 of the season, bucket 0 comes next
+        Assertions.assertEquals(1d, forecast.floor(1, 50));
+
+        observe(forecast, 11, 12);
+        at(13); // Bucket 1 of the season, the burst in bucket 2 comes next
+        Assertions.assertEquals(10d, forecast.floor(1, 50));
+        Assertions.assertEquals(100d, forecast.forecastRate(), 0.001);
+    }
+
+    @Test
+    public void neverExceedsMaxConcurrency() {
+        var forecast = forecast();
+        observe(forecast, 0, 12);
+        at(13);
+        Assertions.assertEquals(5d, forecast.floor(1, 5));
+    }
+
+    @Test
+    public void restoresLearnedSeasonFromSnapshot() {
+        var forecast = forecast();
+        observe(forecast, 0, 12);
+
+        var restored = forecast();
+        restored.restore(forecast.stats());
+        at(13);
+        Assertions.assertEquals(10d, restored.floor(1, 50));
+    }
+
+    @Test
+    public void ignoresSnapshotOfAnotherSeasonLength() {
+        var forecast = forecast();
+        observe(forecast, 0, 12);
+
+        var restored = HoltWintersConcurrencyForecast.<Integer>builder()
+                .messages(Integer::doubleValue)
+                .ratePerConcurrency(10)
+                .bucket(Duration.ofSeconds(1))
+                .seasonLength(3)
+                .clock(clock::get)
+                .build();
+        restored.restore(forecast.stats());
+        at(13);
+        Assertions.assertEquals(1d, restored.floor(1, 50));
+    }
+
+    /**
+     * Observes a season of 4 buckets of 1 second, with a burst of 100 msg/s in the third one, 10 msg/s otherwise
+     */
+    private void observe(HoltWintersConcurrencyForecast<Integer> forecast, int fromBucket, int toBucket) {
+        for (int bucket = fromBucket; bucket <= toBucket; bucket++) {
+            at(bucket);
+            forecast.record(bucket % 4 == 2 ? 100 : 10);
+        }
+    }
+
+    private void at(int bucket) {
+        clock.set(bucket * 1000L + 500);
+    }
+
+    private HoltWintersConcurrencyForecast<Integer> forecast() {
+        return HoltWintersConcurrencyForecast.<Integer>builder()
+                .messages(Integer::doubleValue)
+                .ratePerConcurrency(10)
+                .bucket(Duration.ofSeconds(1))
+                .seasonLength(4)
+                .clock(clock::get)
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@Slf4j
+@ExtendWith({MockitoExtension.class})
+public class PidConcurrencyControllerTests {
+
+    @Test
+    public void holdsConcurrencyAtSetpoint() {
+        var controller = controller(1d, 1d);
+        Assertions.assertEquals(5d, controller.calculate(5d, 1d, 10d, 0.8d));
+        Assertions.assertEquals(5d, controller.calculate(5d, 1d, 10d, 0.8d));
+    }
+
+    @Test
+    public void integratesErrorPerCycle() {
+        var controller = controller(0d, 10d);
+        // +0.2 error * 10 / 2 samples per cycle
+        Assertions.assertEquals(3d, controller.calculate(2d, 1d, 10d, 1d), 1e-9);
+        // +0.2 error * 10 / 3 samples per cycle
+        Assertions.assertEquals(3d + 2d / 3d, controller.calculate(3d, 1d, 10d, 1d), 1e-9);
+    }
+
+    @Test
+    public void proportionalDoesNotAccumulate() {
+        var controller = controller(10d, 0d);
+        Assertions.assertEquals(7d, controller.calculate(5d, 1d, 10d, 1d), 1e-9);
+        Assertions.assertEquals(7d, controller.calculate(7d, 1d, 10d, 1d), 1e-9);
+        Assertions.assertEquals(5d, controller.calculate(7d, 1d, 10d, 0.8d), 1e-9);
+    }
+
+    @Test
+    public void antiWindupRecoversImmediately() {
+        var controller = controller(0d, 10d);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(10d, controller.calculate(10d, 1d, 10d, 1d), 1e-9);
+        }
+        // A single negative error moves away from max, instead of unwinding 100 saturated samples
+        Assertions.assertTrue(controller.calculate(10d, 1d, 10d, 0d) < 10d);
+    }
+
+    @Test
+    public void resumesFromSnapshotStats() {
+        var controller = controller(1d, 10d);
+        Assertions.assertTrue(controller.stats().isEmpty());
+        for (int i = 0; i < 10; i++) {
+            controller.calculate(4d, 1d, 10d, 1d);
+        }
+
+        var restored = controller(1d, 10d);
+        restored.restore(controller.stats());
+
+        Assertions.assertEquals(controller.stats(), restored.stats());
+        // Not reset to the concurrency observed on the first response
+        Assertions.assertEquals(controller.calculate(2d, 1d, 10d, 0.9d), restored.calculate(2d, 1d, 10d, 0.9d), 1e-9);
+    }
+
+    private PidConcurrencyController<Double> controller(double kp, double ki) {
+        return PidConcurrencyController.<Double>builder()
+                .measurement(Double::doubleValue)
+                .setpoint(0.8d)
+                .kp(kp)
+                .ki(ki)
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+@Slf4j
+public class StreamingQuantileTests {
+    private final Random random = new Random(42);
+
+    @Test
+    public void estimatesQuantileOfStream() {
+        var p95 = new StreamingQuantile(0.95, random::nextDouble);
+        for (int i = 0; i < 100000; i++) {
+            p95.add(random.nextInt(1000));
+        }
+        Assertions.assertEquals(950d, p95.estimate(), 50d);
+        Assertions.assertEquals(100000, p95.samples());
+    }
+
+    @Test
+    public void followsShiftsOfTheDistribution() {
+        var p95 = new StreamingQuantile(0.95, random::nextDouble);
+        for (int i = 0; i < 20000; i++) {
+            p95.add(random.nextInt(100));
+        }
+        Assertions.assertEquals(95d, p95.estimate(), 10d);
+
+        for (int i = 0; i < 20000; i++) {
+            p95.add(10000 + random.nextInt(1000));
+        }
+        Assertions.assertEquals(10950d, p95.estimate(), 100d);
+    }
+
+    @Test
+    public void isNaNWithoutSamples() {
+        Assertions.assertTrue(Double.isNaN(new StreamingQuantile(0.5).estimate()));
+    }
+}
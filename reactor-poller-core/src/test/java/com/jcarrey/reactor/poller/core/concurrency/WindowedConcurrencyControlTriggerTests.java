@@ -0,0 +1,81 @@
+package com.jcarrey.reactor.poller.core.concurrency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+@ExtendWith({MockitoExtension.class})
+public class WindowedConcurrencyControlTriggerTests {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    public void mixedResponsesDoNotOscillate() {
+        var trigger = trigger(Duration.ZERO);
+        Assertions.assertEquals(Noop, trigger.calculate(5));
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(Noop, trigger.calculate(i % 2 == 0 ? 10 : 0));
+        }
+    }
+
+    @Test
+    public void scalesUpWhenAverageCrossesThreshold() {
+        var trigger = trigger(Duration.ZERO);
+        Assertions.assertEquals(Noop, trigger.calculate(5));
+        Assertions.assertEquals(Noop, trigger.calculate(10)); // 7.5
+        Assertions.assertEquals(ScaleUp, trigger.calculate(10)); // 8.75
+        Assertions.assertEquals(8.75d, trigger.average());
+    }
+
+    @Test
+    public void scalesDownWhenAverageCrossesThreshold() {
+        var trigger = trigger(Duration.ZERO);
+        Assertions.assertEquals(Noop, trigger.calculate(5));
+        Assertions.assertEquals(Noop, trigger.calculate(0)); // 2.5
+        Assertions.assertEquals(ScaleDown, trigger.calculate(0)); // 1.25
+    }
+
+    @Test
+    public void cooldownSkipsEvents() {
+        var trigger = trigger(Duration.ofSeconds(1));
+        Assertions.assertEquals(ScaleUp, trigger.calculate(10));
+        Assertions.assertEquals(Noop, trigger.calculate(10));
+
+        clock.addAndGet(Duration.ofMillis(999).toNanos());
+        Assertions.assertEquals(Noop, trigger.calculate(10));
+
+        clock.addAndGet(Duration.ofMillis(1).toNanos());
+        Assertions.assertEquals(ScaleUp, trigger.calculate(10));
+    }
+
+    @Test
+    public void rejectsOverlappingThresholds() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> WindowedConcurrencyControlTrigger.<Integer>builder()
+                .score(Integer::doubleValue)
+                .alpha(0.5)
+                .scaleUpThreshold(2)
+                .scaleDownThreshold(2)
+                .build());
+    }
+
+    private WindowedConcurrencyControlTrigger<Integer> trigger(Duration cooldown) {
+        return WindowedConcurrencyControlTrigger.<Integer>builder()
+                .score(Integer::doubleValue)
+                .alpha(0.5)
+                .scaleUpThreshold(8)
+                .scaleDownThreshold(2)
+                .cooldown(cooldown)
+                .nanoClock(clock::get)
+                .build();
+    }
+}
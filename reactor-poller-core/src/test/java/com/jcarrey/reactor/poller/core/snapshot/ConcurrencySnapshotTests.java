@@ -0,0 +1,116 @@
+package com.jcarrey.reactor.poller.core.snapshot;
+
+import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
+import com.jcarrey.reactor.poller.core.ReactorPoller;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTriggers;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class ConcurrencySnapshotTests {
+
+    private static final Instant NOW = Instant.parse("2023-04-01T10:00:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void fileStoreRoundTrip() {
+        var store = new FileConcurrencySnapshotStore(directory.resolve("poller.snapshot"));
+        Assertions.assertTrue(store.load().isEmpty());
+
+        var snapshot = new ConcurrencySnapshot(800d, Map.of("strategy.average", 7.5d), NOW);
+        store.save(snapshot);
+        Assertions.assertEquals(snapshot, store.load().orElseThrow());
+    }
+
+    @Test
+    public void fileStoreRemovesTemporaryFileWhenSaveFails() throws Exception {
+        // A non empty directory can not be replaced by the snapshot
+        var file = directory.resolve("poller.snapshot");
+        Files.createDirectories(file.resolve("child"));
+        var store = new FileConcurrencySnapshotStore(file);
+
+        Assertions.assertThrows(UncheckedIOException.class, () -> store.save(new ConcurrencySnapshot(8d, Map.of(), NOW)));
+        try (var files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(file), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void malformedFileIsIgnored() throws Exception {
+        var file = directory.resolve("poller.snapshot");
+        Files.writeString(file, "concurrency=foo");
+        Assertions.assertTrue(new FileConcurrencySnapshotStore(file).load().isEmpty());
+    }
+
+    @Test
+    public void resumedConcurrencyDecaysWithAge() {
+        var options = options(new FileConcurrencySnapshotStore(directory.resolve("poller.snapshot")));
+
+        Assertions.assertEquals(800d, options.resumeConcurrency(snapshot(800d, Duration.ZERO), 1d, 1d, 1000d));
+        Assertions.assertEquals(400.5d, options.resumeConcurrency(snapshot(800d, Duration.ofMinutes(10)), 1d, 1d, 1000d));
+        Assertions.assertEquals(200.75d, options.resumeConcurrency(snapshot(800d, Duration.ofMinutes(20)), 1d, 1d, 1000d));
+        Assertions.assertEquals(500d, options.resumeConcurrency(snapshot(800d, Duration.ZERO), 1d, 1d, 500d));
+    }
+
+    @Test
+    public void pollerResumesFromSnapshotAndSavesOnCancel() {
+        var store = new FileConcurrencySnapshotStore(directory.resolve("poller.snapshot"));
+        store.save(new ConcurrencySnapshot(8d, Map.of("strategy.average", 4d), NOW));
+
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var trigger = ConcurrencyControlTriggers.<Integer>windowed(Integer::doubleValue, 0.5d, 100d, 0d, Duration.ZERO);
+        var options = ConcurrencyControlOptions.<Integer>builder()
+                .initialConcurrency(1)
+                .minConcurrency(1)
+                .maxConcurrency(10)
+                .strategy(trigger)
+                .snapshot(options(store))
+                .build();
+        var poller = ReactorPoller.adaptative(() -> Mono.fromSupplier(() -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+                .delayElement(Duration.ofMillis(10))
+                .doOnNext(__ -> inFlight.decrementAndGet()), options);
+
+        StepVerifier.create(poller)
+                .expectNextCount(50)
+                .thenCancel()
+                .verify();
+
+        Assertions.assertEquals(8, maxInFlight.get());
+        var saved = store.load().orElseThrow();
+        Assertions.assertEquals(8d, saved.concurrency());
+        Assertions.assertTrue(saved.stats().containsKey("strategy.average"));
+        Assertions.assertNotEquals(4d, saved.stats().get("strategy.average"));
+    }
+
+    private static ConcurrencySnapshot snapshot(double concurrency, Duration age) {
+        return new ConcurrencySnapshot(concurrency, Map.of(), NOW.minus(age));
+    }
+
+    private static ConcurrencySnapshotOptions options(ConcurrencySnapshotStore store) {
+        return ConcurrencySnapshotOptions.builder()
+                .store(store)
+                .halfLife(Duration.ofMinutes(10))
+                .clock(CLOCK)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.jcarrey.reactor.poller.file;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+public class FileStrategies {
+
+    /**
+     * @param scaleUpThreshold - Minimum number of files still ready after a claim to trigger a scale-up event
+     * @return A ConcurrencyControl that will trigger scale downs when nothing was claimed, and will trigger
+     *  scale ups while at least scaleUpThreshold files are waiting in the spool directory
+     */
+    public static ConcurrencyControlTrigger<SpoolBatch> readyFiles(int scaleUpThreshold) {
+        if (scaleUpThreshold < 1) {
+            throw new IllegalArgumentException("scaleUpThreshold must be >= 1");
+        }
+        return batch -> {
+            if (batch.files().isEmpty()) {
+                return ScaleDown;
+            }
+            return batch.ready() >= scaleUpThreshold ? ScaleUp : Noop;
+        };
+    }
+
+    private FileStrategies() {}
+}
@@ -0,0 +1,11 @@
+package com.jcarrey.reactor.poller.file;
+
+import java.util.List;
+
+/**
+ * The files claimed by a single poll
+ * @param files The claimed files, empty if none was ready before the wait timed out
+ * @param ready Files known to be ready in the spool directory after the claim, the backlog
+ */
+public record SpoolBatch(List<SpoolFile> files, int ready) {
+}
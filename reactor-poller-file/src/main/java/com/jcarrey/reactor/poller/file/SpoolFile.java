@@ -0,0 +1,94 @@
+package com.jcarrey.reactor.poller.file;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file claimed by a {@link SpoolPoller}, already moved out of the spool directory, so no other poller sees it.
+ * Its contents are read without copying them onto the heap: either mapped into memory, or transferred
+ * to a channel by the kernel. It must be deleted or moved once processed.
+ */
+public class SpoolFile {
+    private final String name;
+    private final Path path;
+    private final long size;
+
+    SpoolFile(String name, Path path, long size) {
+        this.name = name;
+        this.path = path;
+        this.size = size;
+    }
+
+    /**
+     * @return The name the file had in the spool directory
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Where the claimed file is
+     */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * @return The size when it was claimed, in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Maps the whole file read-only into memory, pages are loaded as they are read.
+     * The mapping outlives the channel and is released when the buffer is garbage collected.
+     * @throws IOException If it cannot be read, or it is larger than {@link Integer#MAX_VALUE} bytes
+     */
+    public MappedByteBuffer map() throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Transfers the contents to the target, i.e: a socket, zero-copy where the platform supports it
+     * @return The number of bytes transferred
+     */
+    public long transferTo(WritableByteChannel target) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            var position = 0L;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Deletes the file once processed
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Moves the file into a directory, i.e: to archive it or to retry it later from the spool directory
+     * @return Where it was moved to
+     */
+    public Path moveTo(Path directory) throws IOException {
+        return Files.move(path, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public String toString() {
+        return "SpoolFile(" + path + ", " + size + " bytes)";
+    }
+}
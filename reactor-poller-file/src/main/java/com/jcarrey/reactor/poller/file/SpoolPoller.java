@@ -0,0 +1,239 @@
+package com.jcarrey.reactor.poller.file;
+
+import com.jcarrey.reactor.poller.core.Poller;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Polls a spool directory, claiming up to batchSize of the files dropped into it per poll. Files are claimed
+ * by atomically renaming them into the claimed directory, so each file is claimed by a single poll, even
+ * across processes sharing the spool directory. Claimed files are handed over as {@link SpoolFile}s, which
+ * must be deleted or moved once processed.
+ *
+ * New files are noticed through a {@link WatchService}: a poll with nothing ready waits for them up to the wait
+ * timeout, as a long poll, instead of listing the directory in a loop. The directory is also listed on the first
+ * poll, when the watch service overflows, and every scanInterval, as watch services may miss files
+ * (i.e: on network file systems).
+ *
+ * Files must be complete when they appear: writers should write them under a hidden name (starting with '.')
+ * or somewhere else in the same file system, and then rename them into the spool directory. Hidden files are
+ * never claimed. Ready files are claimed in name order. A file is claimed under a unique name when a file claimed
+ * earlier with the same name is still in the claimed directory, {@link SpoolFile#name()} keeps its original name.
+ */
+@Slf4j
+public class SpoolPoller implements Poller<SpoolBatch>, AutoCloseable {
+    private final Path directory;
+    private final Path claimedDirectory;
+    private final PathMatcher matcher;
+    private final int batchSize;
+    private final long waitMillis;
+    private final long scanIntervalNanos;
+    private final Scheduler scheduler;
+
+    private final WatchService watcher;
+    private final NavigableSet<Path> ready = new ConcurrentSkipListSet<>();
+    private final AtomicLong lastScanNanos;
+
+    /**
+     * @param directory The spool directory
+     * @param claimedDirectory Where claimed files are moved to, in the same file system, defaults to the hidden
+     *                         directory .claimed in the spool directory
+     * @param glob Only the files whose name matches are claimed, defaults to all of them
+     * @param batchSize Maximum number of files claimed per poll, defaults to 10
+     * @param wait How long a poll waits for new files when none is ready, defaults to 1 second
+     * @param scanInterval How often the directory is listed on top of the watch service notifications, defaults to 30 seconds
+     * @param scheduler Where blocking calls run, defaults to {@link Schedulers#boundedElastic()}
+     */
+    @Builder
+    public SpoolPoller(
+            Path directory,
+            @Nullable Path claimedDirectory,
+            @Nullable String glob,
+            @Nullable Integer batchSize,
+            @Nullable Duration wait,
+            @Nullable Duration scanInterval,
+            @Nullable Scheduler scheduler
+    ) {
+        if (directory == null || !Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("directory must be an existing directory");
+        }
+        this.directory = directory;
+        this.claimedDirectory = Optional.ofNullable(claimedDirectory).orElse(directory.resolve(".claimed"));
+        this.matcher = FileSystems.getDefault().getPathMatcher("glob:" + Optional.ofNullable(glob).orElse("*"));
+        this.batchSize = Optional.ofNullable(batchSize).orElse(10);
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
+        }
+        this.waitMillis = Optional.ofNullable(wait).orElse(Duration.ofSeconds(1)).toMillis();
+        this.scanIntervalNanos = Optional.ofNullable(scanInterval).orElse(Duration.ofSeconds(30)).toNanos();
+        if (this.waitMillis < 0 || this.scanIntervalNanos <= 0) {
+            throw new IllegalArgumentException("wait must be >= 0 and scanInterval must be > 0");
+        }
+        this.scheduler = Optional.ofNullable(scheduler).orElse(Schedulers.boundedElastic());
+        this.lastScanNanos = new AtomicLong(System.nanoTime() - this.scanIntervalNanos);
+        try {
+            Files.createDirectories(this.claimedDirectory);
+            this.watcher = directory.getFileSystem().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException error) {
+            throw new UncheckedIOException("Could not watch " + directory, error);
+        }
+    }
+
+    @Override
+    public Mono<SpoolBatch> poll() {
+        return Mono.fromCallable(this::claim)
+                .subscribeOn(scheduler);
+    }
+
+    private SpoolBatch claim() throws IOException, InterruptedException {
+        collect(false);
+        if (ready.isEmpty() && waitMillis > 0) {
+            collect(true);
+        }
+
+        var files = new ArrayList<SpoolFile>(batchSize);
+        Path path;
+        while (files.size() < batchSize && (path = ready.pollFirst()) != null) {
+            if (!Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                continue;
+            }
+            var claimed = moveToClaimed(path);
+            if (claimed == null) {
+                continue;
+            }
+            files.add(new SpoolFile(path.getFileName().toString(), claimed, Files.size(claimed)));
+        }
+        return new SpoolBatch(files, ready.size());
+    }
+
+    /**
+     * Moves the file into the claimed directory. A file claimed earlier with the same name may still be there, not
+     * processed yet, so the file is moved under a unique name instead, as renaming over it would replace it on most
+     * file systems, and fail on the others.
+     * @return Where the file was moved, or null when another poll claimed it first
+     */
+    @Nullable
+    private Path moveToClaimed(Path path) throws IOException {
+        var name = path.getFileName().toString();
+        var claimed = claimedDirectory.resolve(name);
+        if (Files.exists(claimed, LinkOption.NOFOLLOW_LINKS)) {
+            claimed = uniqueClaimed(name);
+        }
+        try {
+            return Files.move(path, claimed, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException claimedByOther) {
+            return null;
+        } catch (FileAlreadyExistsException sameName) {
+            // Claimed with the same name in between, the file is still ours to claim unless it is gone
+            if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                return null;
+            }
+        }
+        try {
+            return Files.move(path, uniqueClaimed(name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException claimedByOther) {
+            return null;
+        }
+    }
+
+    private Path uniqueClaimed(String name) {
+        var unique = claimedDirectory.resolve(name + "." + UUID.randomUUID());
+        log.debug("{} was already claimed with the same name, claiming it as {}", name, unique.getFileName());
+        return unique;
+    }
+
+    /**
+     * Adds the files notified by the watch service to the ready ones, listing the directory when it is due
+     * @param wait Whether to wait for a notification
+     */
+    private void collect(boolean wait) throws IOException, InterruptedException {
+        var last = lastScanNanos.get();
+        if (System.nanoTime() - last >= scanIntervalNanos && lastScanNanos.compareAndSet(last, System.nanoTime())) {
+            scan();
+        }
+
+        var key = wait ? watcher.poll(waitMillis, TimeUnit.MILLISECONDS) : watcher.poll();
+        while (key != null) {
+            for (var event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    log.debug("Watch service overflow, listing {}", directory);
+                    lastScanNanos.set(System.nanoTime());
+                    scan();
+                } else {
+                    offer(directory.resolve((Path) event.context()));
+                }
+            }
+            if (!key.reset()) {
+                throw new IOException("Spool directory " + directory + " is no longer accessible");
+            }
+            key = watcher.poll();
+        }
+    }
+
+    private void scan() throws IOException {
+        try (var files = Files.newDirectoryStream(directory)) {
+            for (var path : files) {
+                offer(path);
+            }
+        }
+    }
+
+    private void offer(Path path) {
+        var name = path.getFileName();
+        if (!name.toString().startsWith(".") && matcher.matches(name)) {
+            ready.add(path);
+        }
+    }
+
+    /**
+     * @return Files known to be ready in the spool directory
+     */
+    public int ready() {
+        return ready.size();
+    }
+
+    /**
+     * @return The maximum number of files claimed per poll
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Stops watching the spool directory, polls waiting for files fail
+     */
+    @Override
+    public void close() {
+        try {
+            watcher.close();
+        } catch (IOException error) {
+            log.debug("Could not close watch service.", error);
+        }
+    }
+}
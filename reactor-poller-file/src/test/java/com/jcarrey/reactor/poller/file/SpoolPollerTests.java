@@ -0,0 +1,181 @@
+package com.jcarrey.reactor.poller.file;
+
+import com.jcarrey.reactor.poller.core.ReactorPoller;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunctions;
+import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class SpoolPollerTests {
+    @TempDir
+    Path spool;
+
+    private final List<SpoolPoller> pollers = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        pollers.forEach(SpoolPoller::close);
+    }
+
+    @Test
+    public void claimsBatchesAndReportsReady() throws IOException {
+        for (int i = 0; i < 25; i++) {
+            spoolFile(String.format("file-%02d", i), "contents-" + i);
+        }
+        var poller = poller(SpoolPoller.builder().directory(spool));
+
+        var batch = poller.poll().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(10, batch.files().size());
+        Assertions.assertEquals(15, batch.ready());
+        Assertions.assertEquals("file-00", batch.files().get(0).name());
+        Assertions.assertFalse(Files.exists(spool.resolve("file-00")));
+        Assertions.assertTrue(Files.exists(spool.resolve(".claimed").resolve("file-00")));
+    }
+
+    @Test
+    public void waitsForNewFiles() throws IOException {
+        var poller = poller(SpoolPoller.builder().directory(spool).wait(Duration.ofSeconds(10)));
+
+        var start = System.nanoTime();
+        var batch = Mono.delay(Duration.ofMillis(200))
+                .doOnNext(ignored -> spoolFile("late", "late contents"))
+                .then(poller.poll())
+                .block(Duration.ofSeconds(15));
+
+        Assertions.assertEquals(1, batch.files().size());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(8)) < 0);
+    }
+
+    @Test
+    public void claimsFilesWithTheNameOfAnUnprocessedClaimedFile() throws IOException {
+        var claimedDirectory = spool.resolve(".claimed");
+        Files.createDirectories(claimedDirectory);
+        Files.writeString(claimedDirectory.resolve("report"), "first contents");
+        spoolFile("report", "second contents");
+        var poller = poller(SpoolPoller.builder().directory(spool));
+
+        var batch = poller.poll().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, batch.files().size());
+        var file = batch.files().get(0);
+        Assertions.assertEquals("report", file.name());
+        Assertions.assertNotEquals(claimedDirectory.resolve("report"), file.path());
+        Assertions.assertEquals(claimedDirectory, file.path().getParent());
+        Assertions.assertEquals("second contents", Files.readString(file.path()));
+        Assertions.assertEquals("first contents", Files.readString(claimedDirectory.resolve("report")));
+        Assertions.assertFalse(Files.exists(spool.resolve("report")));
+    }
+
+    @Test
+    public void readsWithoutCopyingOntoTheHeap() throws IOException {
+        spoolFile("payload", "memory mapped contents");
+        var poller = poller(SpoolPoller.builder().directory(spool));
+
+        var file = poller.poll().block(Duration.ofSeconds(5)).files().get(0);
+        var mapped = file.map();
+        var bytes = new byte[mapped.remaining()];
+        mapped.get(bytes);
+        var transferred = new ByteArrayOutputStream();
+        file.transferTo(Channels.newChannel(transferred));
+
+        Assertions.assertEquals("memory mapped contents", new String(bytes, StandardCharsets.UTF_8));
+        Assertions.assertEquals("memory mapped contents", transferred.toString(StandardCharsets.UTF_8));
+        Assertions.assertEquals(bytes.length, file.size());
+        file.delete();
+        Assertions.assertFalse(Files.exists(file.path()));
+    }
+
+    @Test
+    public void skipsHiddenAndNotMatchingFiles() throws IOException {
+        spoolFile("data.csv", "a,b");
+        spoolFile("data.tmp", "partial");
+        Files.writeString(spool.resolve(".writing.csv"), "partial");
+        var poller = poller(SpoolPoller.builder().directory(spool).glob("*.csv").wait(Duration.ZERO));
+
+        var batch = poller.poll().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(List.of("data.csv"), batch.files().stream().map(SpoolFile::name).collect(Collectors.toList()));
+        Assertions.assertTrue(poller.poll().block(Duration.ofSeconds(5)).files().isEmpty());
+    }
+
+    @Test
+    public void concurrentPollersClaimEachFileOnce() throws IOException {
+        var total = 300;
+        for (int i = 0; i < total; i++) {
+            spoolFile("file-" + i, "contents-" + i);
+        }
+        var options = ConcurrencyControlOptions.<SpoolBatch>builder()
+                .initialConcurrency(2d)
+                .minConcurrency(2d)
+                .maxConcurrency(6d)
+                .strategy(FileStrategies.readyFiles(10))
+                .scaleUpFn(ConcurrencyControlFunctions.max())
+                .scaleDownFn(ConcurrencyControlFunctions.linear(1))
+                .build();
+
+        var claimed = Flux.merge(
+                        ReactorPoller.adaptative(poller(SpoolPoller.builder().directory(spool).batchSize(7)), options),
+                        ReactorPoller.adaptative(poller(SpoolPoller.builder().directory(spool).batchSize(5)), options))
+                .flatMapIterable(SpoolBatch::files)
+                .map(SpoolFile::name)
+                .take(total)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(total, claimed.size());
+        Assertions.assertEquals(total, new HashSet<>(claimed).size());
+    }
+
+    @Test
+    public void readyFilesStrategy() {
+        var strategy = FileStrategies.readyFiles(10);
+        var file = new SpoolFile("file", spool.resolve("file"), 0);
+
+        Assertions.assertEquals(ScaleDown, strategy.calculate(new SpoolBatch(List.of(), 0)));
+        Assertions.assertEquals(Noop, strategy.calculate(new SpoolBatch(List.of(file), 9)));
+        Assertions.assertEquals(ScaleUp, strategy.calculate(new SpoolBatch(List.of(file), 10)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> FileStrategies.readyFiles(0));
+    }
+
+    private SpoolPoller poller(SpoolPoller.SpoolPollerBuilder builder) {
+        var poller = builder.build();
+        pollers.add(poller);
+        return poller;
+    }
+
+    /**
+     * Writes the file under a hidden name and renames it into the spool, as writers should
+     */
+    private void spoolFile(String name, String contents) {
+        try {
+            var temporary = Files.writeString(spool.resolve("." + name), contents);
+            Files.move(temporary, spool.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException error) {
+            throw new RuntimeException(error);
+        }
+    }
+}
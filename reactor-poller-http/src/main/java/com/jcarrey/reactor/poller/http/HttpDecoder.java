@@ -0,0 +1,41 @@
+package com.jcarrey.reactor.poller.http;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the items of a 200 response while its body is being received, so whole payloads are never
+ * buffered. Reads block until the body arrives, decoders run on the scheduler of the {@link HttpPoller}.
+ */
+@FunctionalInterface
+public interface HttpDecoder<T> {
+    /**
+     * @param body The response body, closed by the poller once decoded
+     * @param headers The headers of the response
+     * @return The decoded items
+     */
+    List<T> decode(InputStream body, HttpHeaders headers) throws IOException;
+
+    /**
+     * @return A decoder of one item per non-blank UTF-8 line, i.e: for newline delimited JSON
+     */
+    static HttpDecoder<String> lines() {
+        return (body, headers) -> {
+            var items = new ArrayList<String>();
+            var reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    items.add(line);
+                }
+            }
+            return items;
+        };
+    }
+}
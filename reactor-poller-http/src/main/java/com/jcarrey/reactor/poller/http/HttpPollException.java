@@ -0,0 +1,19 @@
+package com.jcarrey.reactor.poller.http;
+
+import java.io.IOException;
+
+/**
+ * A long poll got an unexpected HTTP status
+ */
+public class HttpPollException extends IOException {
+    private final int statusCode;
+
+    public HttpPollException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jcarrey.reactor.poller.http;
+
+import java.util.List;
+
+/**
+ * The outcome of a single long poll
+ * @param statusCode The HTTP status, 200, 204 or 304
+ * @param items The decoded items, empty unless the status is 200
+ */
+public record HttpPollResponse<T>(int statusCode, List<T> items) {
+}
@@ -0,0 +1,158 @@
+package com.jcarrey.reactor.poller.http;
+
+import com.jcarrey.reactor.poller.core.AsyncPoller;
+import com.jcarrey.reactor.poller.core.PollCallback;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * Long polls an HTTP endpoint with the JDK {@link HttpClient}, completing the poller callback from the client
+ * future, as SqsAsyncPoller does with the SDK one, so no thread waits for responses.
+ * With HTTP/2 (the default of the client) concurrent polls are multiplexed over a single connection.
+ *
+ * Bodies are decoded as they are received, on the scheduler, by the {@link HttpDecoder}. 204 and 304 responses
+ * have no items, any other status but 200 fails the poll with an {@link HttpPollException}.
+ *
+ * Continuation is shared by all the polls:
+ * <ul>
+ *     <li>The ETag of the last 200 response is sent as If-None-Match, so an unchanged resource is a 304</li>
+ *     <li>With a cursorHeader, its value in the last response having it is sent as the cursorParameter query parameter</li>
+ * </ul>
+ * Concurrent polls of a cursor feed would get the same items, so it should be polled with a concurrency of 1,
+ * concurrency is meant for endpoints leasing items to each request, like a queue.
+ */
+@Slf4j
+public class HttpPoller<T> implements AsyncPoller<HttpPollResponse<T>> {
+    private final HttpClient client;
+    private final URI uri;
+    private final HttpDecoder<T> decoder;
+    private final Duration timeout;
+    private final UnaryOperator<HttpRequest.Builder> customizer;
+    @Nullable
+    private final String cursorHeader;
+    private final String cursorParameter;
+    private final Executor decoding;
+
+    private final AtomicReference<String> etag = new AtomicReference<>();
+    private final AtomicReference<String> cursor = new AtomicReference<>();
+
+    /**
+     * @param client The client, defaults to one preferring HTTP/2
+     * @param uri The long poll endpoint
+     * @param decoder Decodes the items of the responses
+     * @param timeout How long a poll may take, longer than the server long poll wait, defaults to 30 seconds
+     * @param customizer Customizes every request, i.e: to add authentication headers
+     * @param cursorHeader The response header carrying the cursor to continue from, none by default
+     * @param cursorParameter The query parameter the cursor is sent back with, defaults to "cursor"
+     * @param scheduler Where bodies are decoded, defaults to {@link Schedulers#boundedElastic()} as reads block
+     */
+    @Builder
+    public HttpPoller(
+            @Nullable HttpClient client,
+            URI uri,
+            HttpDecoder<T> decoder,
+            @Nullable Duration timeout,
+            @Nullable UnaryOperator<HttpRequest.Builder> customizer,
+            @Nullable String cursorHeader,
+            @Nullable String cursorParameter,
+            @Nullable Scheduler scheduler
+    ) {
+        if (uri == null || decoder == null) {
+            throw new IllegalArgumentException("uri and decoder must not be null");
+        }
+        this.client = Optional.ofNullable(client).orElseGet(() -> HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .build());
+        this.uri = uri;
+        this.decoder = decoder;
+        this.timeout = Optional.ofNullable(timeout).orElse(Duration.ofSeconds(30));
+        this.customizer = Optional.ofNullable(customizer).orElse(UnaryOperator.identity());
+        this.cursorHeader = cursorHeader;
+        this.cursorParameter = Optional.ofNullable(cursorParameter).orElse("cursor");
+        var decodingScheduler = Optional.ofNullable(scheduler).orElse(Schedulers.boundedElastic());
+        this.decoding = decodingScheduler::schedule;
+    }
+
+    @Override
+    public void poll(PollCallback<HttpPollResponse<T>> callback) {
+        client.sendAsync(request(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApplyAsync(this::decode, decoding)
+                .whenComplete((response, error) -> callback.accept(response, unwrap(error)));
+    }
+
+    private HttpRequest request() {
+        var current = cursor.get();
+        var target = uri;
+        if (current != null) {
+            var query = cursorParameter + "=" + URLEncoder.encode(current, StandardCharsets.UTF_8);
+            target = URI.create(uri + (uri.getRawQuery() == null ? "?" : "&") + query);
+        }
+        var builder = HttpRequest.newBuilder(target)
+                .timeout(timeout)
+                .GET();
+        var lastEtag = etag.get();
+        if (lastEtag != null) {
+            builder.header("If-None-Match", lastEtag);
+        }
+        return customizer.apply(builder).build();
+    }
+
+    private HttpPollResponse<T> decode(HttpResponse<InputStream> response) {
+        try (var body = response.body()) {
+            var status = response.statusCode();
+            if (status == 204 || status == 304) {
+                continueFrom(response);
+                return new HttpPollResponse<>(status, List.of());
+            }
+            if (status != 200) {
+                throw new HttpPollException(status, "Unexpected status " + status + " polling " + response.uri());
+            }
+            var items = decoder.decode(body, response.headers());
+            continueFrom(response);
+            response.headers().firstValue("ETag").ifPresent(etag::set);
+            return new HttpPollResponse<>(status, items);
+        } catch (IOException error) {
+            throw new UncheckedIOException(error);
+        }
+    }
+
+    /**
+     * Only moves the cursor once the items before it were decoded
+     */
+    private void continueFrom(HttpResponse<?> response) {
+        if (cursorHeader != null) {
+            response.headers().firstValue(cursorHeader).ifPresent(cursor::set);
+        }
+    }
+
+    @Nullable
+    private static Throwable unwrap(@Nullable Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof UncheckedIOException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
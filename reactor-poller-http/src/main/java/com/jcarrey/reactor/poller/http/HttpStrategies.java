@@ -0,0 +1,29 @@
+package com.jcarrey.reactor.poller.http;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+public class HttpStrategies {
+
+    /**
+     * @param scaleUpThreshold - Minimum number of items in a response to trigger a scale-up event
+     * @return A ConcurrencyControl that will trigger scale downs on responses without items (including 204 and 304),
+     *  and will trigger scale ups if the response has at least scaleUpThreshold items
+     */
+    public static <T> ConcurrencyControlTrigger<HttpPollResponse<T>> itemCount(int scaleUpThreshold) {
+        if (scaleUpThreshold < 1) {
+            throw new IllegalArgumentException("scaleUpThreshold must be >= 1");
+        }
+        return response -> {
+            if (response.items().isEmpty()) {
+                return ScaleDown;
+            }
+            return response.items().size() >= scaleUpThreshold ? ScaleUp : Noop;
+        };
+    }
+
+    private HttpStrategies() {}
+}
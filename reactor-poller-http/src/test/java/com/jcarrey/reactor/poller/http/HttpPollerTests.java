@@ -0,0 +1,187 @@
+package com.jcarrey.reactor.poller.http;
+
+import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
+import com.jcarrey.reactor.poller.core.PollCallback;
+import com.jcarrey.reactor.poller.core.ReactorPoller;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunctions;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class HttpPollerTests {
+    private HttpServer server;
+    private final List<URI> requests = new CopyOnWriteArrayList<>();
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void decodesItemsAndContinuesFromCursor() {
+        var poller = poller(exchange -> {
+            var cursor = exchange.getRequestURI().getQuery() == null ? 0 : Integer.parseInt(exchange.getRequestURI().getQuery().split("=")[1]);
+            exchange.getResponseHeaders().add("X-Next-Cursor", String.valueOf(cursor + 3));
+            respond(exchange, 200, "item-" + cursor + "\nitem-" + (cursor + 1) + "\n\nitem-" + (cursor + 2) + "\n");
+        }, HttpPoller.<String>builder().cursorHeader("X-Next-Cursor"));
+
+        var first = poll(poller);
+        var second = poll(poller);
+
+        Assertions.assertEquals(List.of("item-0", "item-1", "item-2"), first.items());
+        Assertions.assertEquals(List.of("item-3", "item-4", "item-5"), second.items());
+        Assertions.assertNull(requests.get(0).getQuery());
+        Assertions.assertEquals("cursor=3", requests.get(1).getQuery());
+    }
+
+    @Test
+    public void sendsEtagAndTreatsNotModifiedAsEmpty() {
+        var poller = poller(exchange -> {
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                respond(exchange, 304, null);
+                return;
+            }
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            respond(exchange, 200, "item\n");
+        }, HttpPoller.builder());
+
+        var first = poll(poller);
+        var second = poll(poller);
+
+        Assertions.assertEquals(List.of("item"), first.items());
+        Assertions.assertEquals(304, second.statusCode());
+        Assertions.assertTrue(second.items().isEmpty());
+        Assertions.assertEquals("\"v1\"", ifNoneMatch.get(1));
+    }
+
+    @Test
+    public void noContentIsEmptyAndErrorsFail() {
+        var statuses = new ConcurrentLinkedQueue<>(List.of(204, 503));
+        var poller = poller(exchange -> respond(exchange, statuses.poll(), null), HttpPoller.builder());
+
+        Assertions.assertTrue(poll(poller).items().isEmpty());
+        var error = Assertions.assertThrows(Exception.class, () -> poll(poller));
+        Assertions.assertTrue(error.getCause() instanceof HttpPollException);
+        Assertions.assertEquals(503, ((HttpPollException) error.getCause()).statusCode());
+    }
+
+    @Test
+    public void adaptativeConcurrencyDrainsLeasedItems() {
+        var total = 500;
+        Queue<String> queue = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < total; i++) {
+            queue.add("item-" + i);
+        }
+        var poller = poller(exchange -> {
+            var body = new StringBuilder();
+            String item;
+            for (int i = 0; i < 10 && (item = queue.poll()) != null; i++) {
+                body.append(item).append('\n');
+            }
+            if (body.length() == 0) {
+                respond(exchange, 204, null);
+            } else {
+                respond(exchange, 200, body.toString());
+            }
+        }, HttpPoller.builder());
+        var options = ConcurrencyControlOptions.<HttpPollResponse<String>>builder()
+                .initialConcurrency(1d)
+                .minConcurrency(1d)
+                .maxConcurrency(8d)
+                .strategy(HttpStrategies.itemCount(10))
+                .scaleUpFn(ConcurrencyControlFunctions.linear(1))
+                .scaleDownFn(ConcurrencyControlFunctions.linear(1))
+                .build();
+
+        var received = ReactorPoller.adaptative(poller, options)
+                .flatMapIterable(HttpPollResponse::items)
+                .take(total)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(total, received.size());
+        Assertions.assertEquals(total, new HashSet<>(received).size());
+    }
+
+    @Test
+    public void itemCountStrategy() {
+        var strategy = HttpStrategies.<String>itemCount(3);
+
+        Assertions.assertEquals(ScaleDown, strategy.calculate(new HttpPollResponse<>(204, List.of())));
+        Assertions.assertEquals(ScaleDown, strategy.calculate(new HttpPollResponse<>(304, List.of())));
+        Assertions.assertEquals(Noop, strategy.calculate(new HttpPollResponse<>(200, List.of("a"))));
+        Assertions.assertEquals(ScaleUp, strategy.calculate(new HttpPollResponse<>(200, List.of("a", "b", "c"))));
+    }
+
+    private HttpPoller<String> poller(HttpHandler handler, HttpPoller.HttpPollerBuilder<String> builder) {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException error) {
+            throw new RuntimeException(error);
+        }
+        server.createContext("/poll", exchange -> {
+            requests.add(exchange.getRequestURI());
+            ifNoneMatch.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-None-Match")));
+            handler.handle(exchange);
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        return builder
+                .client(HttpClient.newHttpClient())
+                .uri(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/poll"))
+                .decoder(HttpDecoder.lines())
+                .timeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static HttpPollResponse<String> poll(HttpPoller<String> poller) {
+        return Mono.<HttpPollResponse<String>>create(sink -> poller.poll(new PollCallback<>() {
+            @Override
+            public void complete(HttpPollResponse<String> value) {
+                sink.success(value);
+            }
+
+            @Override
+            public void fail(Throwable error) {
+                sink.error(error);
+            }
+        })).block(Duration.ofSeconds(10));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
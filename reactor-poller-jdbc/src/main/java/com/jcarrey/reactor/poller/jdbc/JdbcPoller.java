@@ -0,0 +1,266 @@
+package com.jcarrey.reactor.poller.jdbc;
+
+import com.jcarrey.reactor.poller.core.Poller;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Polls a table (i.e: an outbox) claiming a batch of rows per poll, in a transaction, so concurrent pollers,
+ * even from other processes, never claim the same rows at the same time.
+ *
+ * Claimed rows are leased, not removed: the claim marks them as taken until a lease expires, and they are only
+ * removed once processed, by {@link #acknowledge(Collection)}. Rows whose processing fails, or that were claimed by a
+ * process that crashed, are claimed again when their lease expires, so rows are delivered at least once. Either:
+ * <ul>
+ *     <li>The claim query skips leased rows and locks the ones it returns, and the lease statement leases each of
+ *     them by key before commit, i.e: {@code SELECT id FROM outbox WHERE leased_until IS NULL OR leased_until < now()
+ *     ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED} and {@code UPDATE outbox SET leased_until = now() + interval '30 seconds'
+ *     WHERE id = ?}</li>
+ *     <li>The claim query leases and returns the rows in a single statement, i.e:
+ *     {@code UPDATE outbox SET leased_until = now() + interval '30 seconds' WHERE id IN (SELECT id ... LIMIT ?
+ *     FOR UPDATE SKIP LOCKED) RETURNING *}</li>
+ * </ul>
+ * The only parameter of the claim query is the batch size. The acknowledge statement removes a processed row, i.e:
+ * {@code DELETE FROM outbox WHERE id = ?}, and the release statement ends the lease of a row that will not be
+ * processed so it is claimed again right away, i.e: {@code UPDATE outbox SET leased_until = NULL WHERE id = ?}.
+ * A claim query removing the rows it returns, i.e: {@code DELETE ... RETURNING}, needs none of them, but then
+ * rows are delivered at most once.
+ *
+ * Claims block, so they run on the scheduler, a bounded one by default. Each poll borrows a session (a connection and
+ * its prepared statements) which is reused by later polls, so there are as many sessions as concurrent polls.
+ * A poll claiming nothing completes after the idle delay, so idle polls do not query the table in a loop.
+ * Close the poller to close the sessions, it can not be polled afterwards.
+ */
+@Slf4j
+public class JdbcPoller<T> implements Poller<List<T>>, AutoCloseable {
+    private final DataSource dataSource;
+    private final String claimSql;
+    @Nullable
+    private final String leaseSql;
+    @Nullable
+    private final String acknowledgeSql;
+    @Nullable
+    private final String releaseSql;
+    private final RowMapper<T> rowMapper;
+    @Nullable
+    private final Function<T, Object> key;
+    private final int batchSize;
+    private final Duration idleDelay;
+    private final Scheduler scheduler;
+
+    private final Queue<JdbcSession> idleSessions = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    /**
+     * @param dataSource Where connections are taken from, the poller keeps them open while it is in use
+     * @param claimSql Query claiming and returning up to batchSize rows, its only parameter
+     * @param leaseSql Statement run for each claimed row in the claim transaction, its only parameter being the key of the row
+     * @param acknowledgeSql Statement run for each row passed to {@link #acknowledge(Collection)}, its only parameter being the key of the row
+     * @param releaseSql Statement run for each row passed to {@link #release(Collection)}, its only parameter being the key of the row
+     * @param rowMapper Maps each claimed row
+     * @param key The key of a mapped row, required with leaseSql, acknowledgeSql or releaseSql
+     * @param batchSize The maximum number of rows claimed per poll, defaults to 10
+     * @param idleDelay How long a poll claiming nothing waits before completing, defaults to 1 second
+     * @param scheduler Where blocking claims run, defaults to {@link Schedulers#boundedElastic()}. On JDK 21+ a scheduler
+     *                  on virtual threads can be used instead.
+     */
+    @Builder
+    public JdbcPoller(
+            DataSource dataSource,
+            String claimSql,
+            @Nullable String leaseSql,
+            @Nullable String acknowledgeSql,
+            @Nullable String releaseSql,
+            RowMapper<T> rowMapper,
+            @Nullable Function<T, Object> key,
+            @Nullable Integer batchSize,
+            @Nullable Duration idleDelay,
+            @Nullable Scheduler scheduler
+    ) {
+        if (dataSource == null || claimSql == null || rowMapper == null) {
+            throw new IllegalArgumentException("dataSource, claimSql and rowMapper must not be null");
+        }
+        if ((leaseSql != null || acknowledgeSql != null || releaseSql != null) && key == null) {
+            throw new IllegalArgumentException("key is required to lease, acknowledge or release claimed rows");
+        }
+        this.dataSource = dataSource;
+        this.claimSql = claimSql;
+        this.leaseSql = leaseSql;
+        this.acknowledgeSql = acknowledgeSql;
+        this.releaseSql = releaseSql;
+        this.rowMapper = rowMapper;
+        this.key = key;
+        this.batchSize = Optional.ofNullable(batchSize).orElse(10);
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1");
+        }
+        this.idleDelay = Optional.ofNullable(idleDelay).orElse(Duration.ofSeconds(1));
+        if (this.idleDelay.isNegative()) {
+            throw new IllegalArgumentException("idleDelay must be >= 0");
+        }
+        this.scheduler = Optional.ofNullable(scheduler).orElse(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<List<T>> poll() {
+        if (closed) {
+            return Mono.error(new IllegalStateException("JdbcPoller is closed"));
+        }
+        var claim = Mono.fromCallable(this::claim)
+                .subscribeOn(scheduler);
+        if (idleDelay.isZero()) {
+            return claim;
+        }
+        return claim.flatMap(rows -> rows.isEmpty() ? Mono.just(rows).delayElement(idleDelay) : Mono.just(rows));
+    }
+
+    /**
+     * Removes processed rows with the acknowledge statement
+     * @param rows Rows returned by previous polls
+     * @return Completes once the removal is committed
+     */
+    public Mono<Void> acknowledge(Collection<T> rows) {
+        if (acknowledgeSql == null) {
+            return Mono.error(new IllegalStateException("acknowledgeSql is not set"));
+        }
+        return execute(acknowledgeSql, rows);
+    }
+
+    /**
+     * Ends the lease of rows that will not be processed with the release statement, so they are claimed again right away
+     * @param rows Rows returned by previous polls
+     * @return Completes once the release is committed
+     */
+    public Mono<Void> release(Collection<T> rows) {
+        if (releaseSql == null) {
+            return Mono.error(new IllegalStateException("releaseSql is not set"));
+        }
+        return execute(releaseSql, rows);
+    }
+
+    /**
+     * @return A release callback for {@link com.jcarrey.reactor.poller.core.ConcurrencyControlOptions#getRelease()},
+     *  releasing the rows claimed but not emitted on cancel or while draining. It does not wait for the release to
+     *  be committed, failures are only logged as the leases expire anyway.
+     */
+    public Consumer<List<T>> releaser() {
+        if (releaseSql == null) {
+            throw new IllegalStateException("releaseSql is not set");
+        }
+        return rows -> {
+            if (!rows.isEmpty()) {
+                release(rows).subscribe(null, error -> log.warn("Could not release {} rows.", rows.size(), error));
+            }
+        };
+    }
+
+    /**
+     * @return The maximum number of rows claimed per poll
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    private List<T> claim() throws SQLException {
+        var session = borrow();
+        try {
+            var rows = new ArrayList<T>(batchSize);
+            var claim = session.statement(claimSql);
+            claim.setInt(1, batchSize);
+            try (var resultSet = claim.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(rowMapper.map(resultSet));
+                }
+            }
+            if (leaseSql != null && !rows.isEmpty()) {
+                session.executeBatch(leaseSql, keys(rows));
+            }
+            session.connection().commit();
+            recycle(session);
+            return rows;
+        } catch (SQLException | RuntimeException error) {
+            // The connection may be broken, a new session is opened by the next poll
+            session.rollback();
+            session.close();
+            throw error;
+        }
+    }
+
+    private Mono<Void> execute(String sql, Collection<T> rows) {
+        if (rows.isEmpty()) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromCallable(() -> {
+                    var session = borrow();
+                    try {
+                        session.executeBatch(sql, keys(rows));
+                        session.connection().commit();
+                        recycle(session);
+                        return null;
+                    } catch (SQLException | RuntimeException error) {
+                        session.rollback();
+                        session.close();
+                        throw error;
+                    }
+                })
+                .subscribeOn(scheduler);
+    }
+
+    private List<Object> keys(Collection<T> rows) {
+        var keys = new ArrayList<>(rows.size());
+        for (var row : rows) {
+            keys.add(key.apply(row));
+        }
+        return keys;
+    }
+
+    private JdbcSession borrow() throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("JdbcPoller is closed");
+        }
+        var session = idleSessions.poll();
+        if (session != null) {
+            return session;
+        }
+        return new JdbcSession(dataSource.getConnection());
+    }
+
+    private void recycle(JdbcSession session) {
+        idleSessions.offer(session);
+        if (closed) {
+            closeIdleSessions();
+        }
+    }
+
+    /**
+     * Closes the idle sessions, and the ones in use as soon as their claim finishes. Later polls fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        closeIdleSessions();
+    }
+
+    private void closeIdleSessions() {
+        JdbcSession session;
+        while ((session = idleSessions.poll()) != null) {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jcarrey.reactor.poller.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A connection with its prepared statements, reused by consecutive polls, only used by one poll at a time.
+ * Statements are prepared the first time they are used.
+ */
+@Slf4j
+final class JdbcSession implements AutoCloseable {
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+    JdbcSession(Connection connection) throws SQLException {
+        this.connection = connection;
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException error) {
+            connection.close();
+            throw error;
+        }
+    }
+
+    Connection connection() {
+        return connection;
+    }
+
+    PreparedStatement statement(String sql) throws SQLException {
+        var statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Runs the statement once per key, in a single batch
+     */
+    void executeBatch(String sql, Iterable<?> keys) throws SQLException {
+        var statement = statement(sql);
+        for (var key : keys) {
+            statement.setObject(1, key);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+    }
+
+    void rollback() {
+        try {
+            connection.rollback();
+        } catch (SQLException error) {
+            log.debug("Could not rollback claim.", error);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            connection.close();
+        } catch (SQLException error) {
+            log.debug("Could not close connection.", error);
+        }
+    }
+}
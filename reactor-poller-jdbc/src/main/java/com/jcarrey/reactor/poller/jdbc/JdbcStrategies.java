@@ -0,0 +1,31 @@
+package com.jcarrey.reactor.poller.jdbc;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+
+import java.util.List;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+public class JdbcStrategies {
+
+    /**
+     * @param scaleUpThreshold - Minimum number of rows claimed by a poll to trigger a scale-up event, i.e: the batch size.
+     * @return A ConcurrencyControl that will trigger scale downs when nothing was claimed, and will trigger
+     *  scale ups if the claimed batch has at least scaleUpThreshold rows
+     */
+    public static <T> ConcurrencyControlTrigger<List<T>> claimedBatchSize(int scaleUpThreshold) {
+        if (scaleUpThreshold < 1) {
+            throw new IllegalArgumentException("scaleUpThreshold must be >= 1");
+        }
+        return claimed -> {
+            if (claimed.isEmpty()) {
+                return ScaleDown;
+            }
+            return claimed.size() >= scaleUpThreshold ? ScaleUp : Noop;
+        };
+    }
+
+    private JdbcStrategies() {}
+}
@@ -0,0 +1,270 @@
+package com.jcarrey.reactor.poller.jdbc;
+
+import com.jcarrey.reactor.poller.core.ReactorPoller;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunctions;
+import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class JdbcPollerTests {
+    private static final int ROWS = 500;
+    private static final String CLAIM_SKIP_LOCKED = "SELECT id FROM outbox WHERE leased_until IS NULL OR leased_until < CURRENT_TIMESTAMP "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private JdbcDataSource dataSource;
+    private final List<JdbcPoller<Long>> pollers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE outbox (id BIGINT PRIMARY KEY, payload VARCHAR(64), leased_until TIMESTAMP)");
+            statement.execute("INSERT INTO outbox SELECT x, 'payload-' || x, NULL FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SQLException {
+        pollers.forEach(JdbcPoller::close);
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    public void claimsWithDeleteReturning() {
+        var poller = poller(JdbcPoller.<Long>builder()
+                .claimSql("SELECT id FROM OLD TABLE (DELETE FROM outbox WHERE id IN (SELECT id FROM outbox ORDER BY id LIMIT ?))"));
+
+        assertAllClaimedOnce(poller);
+    }
+
+    @Test
+    public void claimsWithLeaseAndAcknowledge() throws SQLException {
+        var poller = leasingPoller(30);
+
+        var options = ConcurrencyControlOptions.<List<Long>>builder()
+                .initialConcurrency(4d)
+                .minConcurrency(4d)
+                .maxConcurrency(8d)
+                .strategy(JdbcStrategies.claimedBatchSize(poller.batchSize()))
+                .scaleUpFn(ConcurrencyControlFunctions.max())
+                .scaleDownFn(ConcurrencyControlFunctions.linear(1))
+                .build();
+
+        var claimed = ReactorPoller.adaptative(poller, options)
+                .concatMap(rows -> poller.acknowledge(rows).thenReturn(rows))
+                .flatMapIterable(rows -> rows)
+                .take(ROWS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(ROWS, claimed.size());
+        Assertions.assertEquals(ROWS, new HashSet<>(claimed).size());
+        Assertions.assertEquals(0, count("SELECT COUNT(*) FROM outbox"));
+    }
+
+    @Test
+    public void unacknowledgedRowsAreKeptLeased() throws SQLException {
+        var poller = leasingPoller(30);
+
+        var first = poller.poll().block(Duration.ofSeconds(5));
+        var second = poller.poll().block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L), first);
+        Assertions.assertEquals(11L, second.get(0));
+        Assertions.assertEquals(ROWS, count("SELECT COUNT(*) FROM outbox"));
+        Assertions.assertEquals(20, count("SELECT COUNT(*) FROM outbox WHERE leased_until IS NOT NULL"));
+    }
+
+    @Test
+    public void releasedAndExpiredRowsAreClaimedAgain() throws InterruptedException, SQLException {
+        var poller = leasingPoller(30);
+        var first = poller.poll().block(Duration.ofSeconds(5));
+        poller.release(first).block(Duration.ofSeconds(5));
+        Assertions.assertEquals(first, poller.poll().block(Duration.ofSeconds(5)));
+
+        var expiring = leasingPoller(0);
+        var leased = expiring.poll().block(Duration.ofSeconds(5));
+        Assertions.assertEquals(11L, leased.get(0));
+        Thread.sleep(50);
+        Assertions.assertEquals(leased, expiring.poll().block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void concurrentClaimsSkipLockedRows() throws InterruptedException {
+        var mapping = new CountDownLatch(1);
+        var resume = new CountDownLatch(1);
+        var poller = JdbcPoller.<Long>builder()
+                .dataSource(dataSource)
+                .claimSql(CLAIM_SKIP_LOCKED)
+                .leaseSql("UPDATE outbox SET leased_until = DATEADD(SECOND, 30, CURRENT_TIMESTAMP) WHERE id = ?")
+                .key(id -> id)
+                .batchSize(10)
+                .rowMapper(row -> {
+                    // The first claim holds the locks on its rows until it is resumed
+                    if (mapping.getCount() > 0) {
+                        mapping.countDown();
+                        try {
+                            resume.await();
+                        } catch (InterruptedException error) {
+                            throw new SQLException(error);
+                        }
+                    }
+                    return row.getLong(1);
+                })
+                .build();
+        pollers.add(poller);
+
+        var first = poller.poll().toFuture();
+        Assertions.assertTrue(mapping.await(5, TimeUnit.SECONDS));
+        var second = poller.poll().block(Duration.ofSeconds(5));
+        resume.countDown();
+        var firstRows = first.join();
+
+        Assertions.assertEquals(10, firstRows.size());
+        Assertions.assertEquals(10, second.size());
+        var all = new HashSet<>(firstRows);
+        all.addAll(second);
+        Assertions.assertEquals(20, all.size());
+    }
+
+    @Test
+    public void emptyClaimsWaitTheIdleDelay() {
+        var poller = poller(JdbcPoller.<Long>builder()
+                .claimSql("SELECT id FROM outbox WHERE id < 0 LIMIT ?")
+                .idleDelay(Duration.ofMillis(300)));
+
+        var start = System.nanoTime();
+        Assertions.assertTrue(poller.poll().block(Duration.ofSeconds(5)).isEmpty());
+        Assertions.assertTrue(System.nanoTime() - start >= Duration.ofMillis(300).toNanos());
+    }
+
+    @Test
+    public void pollAfterCloseFails() {
+        var poller = leasingPoller(30);
+        Assertions.assertEquals(10, poller.poll().block(Duration.ofSeconds(5)).size());
+
+        poller.close();
+
+        Assertions.assertThrows(IllegalStateException.class, () -> poller.poll().block(Duration.ofSeconds(5)));
+        Assertions.assertThrows(IllegalStateException.class, () -> poller.acknowledge(List.of(1L)).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void reopensSessionAfterFailure() throws SQLException {
+        var poller = poller(JdbcPoller.<Long>builder()
+                .claimSql("SELECT id FROM OLD TABLE (DELETE FROM outbox WHERE id IN (SELECT id FROM outbox ORDER BY id LIMIT ?))"));
+        Assertions.assertEquals(10, poller.poll().block(Duration.ofSeconds(5)).size());
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE outbox RENAME TO outbox_renamed");
+        }
+        Assertions.assertThrows(RuntimeException.class, () -> poller.poll().block(Duration.ofSeconds(5)));
+
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE outbox_renamed RENAME TO outbox");
+        }
+        Assertions.assertEquals(10, poller.poll().block(Duration.ofSeconds(5)).size());
+    }
+
+    @Test
+    public void claimedBatchSizeStrategy() {
+        var strategy = JdbcStrategies.<Long>claimedBatchSize(10);
+
+        Assertions.assertEquals(ScaleDown, strategy.calculate(List.of()));
+        Assertions.assertEquals(Noop, strategy.calculate(List.of(1L)));
+        Assertions.assertEquals(ScaleUp, strategy.calculate(new ArrayList<>(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> JdbcStrategies.claimedBatchSize(0));
+    }
+
+    @Test
+    public void validatesArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> JdbcPoller.<Long>builder()
+                .dataSource(dataSource)
+                .rowMapper(row -> row.getLong(1))
+                .build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> JdbcPoller.<Long>builder()
+                .dataSource(dataSource)
+                .claimSql("SELECT id FROM outbox LIMIT ? FOR UPDATE")
+                .acknowledgeSql("DELETE FROM outbox WHERE id = ?")
+                .rowMapper(row -> row.getLong(1))
+                .build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> JdbcPoller.<Long>builder()
+                .dataSource(dataSource)
+                .claimSql("SELECT id FROM outbox LIMIT ?")
+                .rowMapper(row -> row.getLong(1))
+                .idleDelay(Duration.ofSeconds(-1))
+                .build());
+    }
+
+    private JdbcPoller<Long> leasingPoller(int leaseSeconds) {
+        return poller(JdbcPoller.<Long>builder()
+                .claimSql(CLAIM_SKIP_LOCKED)
+                .leaseSql("UPDATE outbox SET leased_until = DATEADD(SECOND, " + leaseSeconds + ", CURRENT_TIMESTAMP) WHERE id = ?")
+                .acknowledgeSql("DELETE FROM outbox WHERE id = ?")
+                .releaseSql("UPDATE outbox SET leased_until = NULL WHERE id = ?")
+                .key(id -> id));
+    }
+
+    private JdbcPoller<Long> poller(JdbcPoller.JdbcPollerBuilder<Long> builder) {
+        var poller = builder
+                .dataSource(dataSource)
+                .rowMapper(row -> row.getLong(1))
+                .batchSize(10)
+                .build();
+        pollers.add(poller);
+        return poller;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Concurrent polls must claim every row exactly once
+     */
+    private void assertAllClaimedOnce(JdbcPoller<Long> poller) {
+        var options = ConcurrencyControlOptions.<List<Long>>builder()
+                .initialConcurrency(4d)
+                .minConcurrency(4d)
+                .maxConcurrency(8d)
+                .strategy(JdbcStrategies.claimedBatchSize(poller.batchSize()))
+                .scaleUpFn(ConcurrencyControlFunctions.max())
+                .scaleDownFn(ConcurrencyControlFunctions.linear(1))
+                .build();
+
+        var claimed = ReactorPoller.adaptative(poller, options)
+                .flatMapIterable(rows -> rows)
+                .take(ROWS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        Assertions.assertEquals(ROWS, claimed.size());
+        Assertions.assertEquals(ROWS, new HashSet<>(claimed).size());
+        var remaining = poller.poll().block(Duration.ofSeconds(5));
+        Assertions.assertTrue(remaining.isEmpty());
+    }
+}
@@ -0,0 +1,26 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import com.jcarrey.reactor.poller.core.AsyncPoller;
+import com.jcarrey.reactor.poller.core.PollCallback;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+/**
+ * Receives messages completing the poller callback straight from the SDK future, with no Reactor
+ * operators nor thread hops per receive. Elements are emitted on the SDK completion thread.
+ */
+public class SqsAsyncPoller implements AsyncPoller<ReceiveMessageResponse> {
+    private final SqsAsyncClient client;
+    private final ReceiveMessageRequest request;
+
+    public SqsAsyncPoller(SqsAsyncClient client, ReceiveMessageRequest request) {
+        this.client = client;
+        this.request = request;
+    }
+
+    @Override
+    public void poll(PollCallback<ReceiveMessageResponse> callback) {
+        client.receiveMessage(request).whenComplete(callback);
+    }
+}
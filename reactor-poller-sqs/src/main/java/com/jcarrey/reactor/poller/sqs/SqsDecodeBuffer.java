@@ -0,0 +1,43 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scratch space of a decoding thread, reused for every message it decodes so bodies are not copied into
+ * a new array each time. It is not thread-safe, each thread gets its own.
+ */
+public final class SqsDecodeBuffer {
+    /**
+     * Bodies are at most 256 KiB, a buffer grown past this by an unusual message is not retained
+     */
+    private static final int MAX_RETAINED_BYTES = 1024 * 1024;
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytes = ByteBuffer.allocate(4096);
+
+    SqsDecodeBuffer() {
+    }
+
+    /**
+     * Encodes the text as UTF-8 into the reused buffer
+     * @return A heap buffer from position 0 to the encoded length, its {@link ByteBuffer#array()} can be handed to
+     *  byte array parsers along with {@link ByteBuffer#limit()}. It is overwritten by the next call.
+     */
+    public ByteBuffer utf8(CharSequence text) {
+        var required = (int) Math.ceil(text.length() * (double) encoder.maxBytesPerChar());
+        if (required > bytes.capacity() || bytes.capacity() > MAX_RETAINED_BYTES) {
+            bytes = ByteBuffer.allocate(Math.max(required, 4096));
+        }
+        bytes.clear();
+        encoder.reset();
+        encoder.encode(CharBuffer.wrap(text), bytes, true);
+        encoder.flush(bytes);
+        return bytes.flip();
+    }
+}
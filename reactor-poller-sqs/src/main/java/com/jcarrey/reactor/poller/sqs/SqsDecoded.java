@@ -0,0 +1,18 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import reactor.util.annotation.Nullable;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+/**
+ * The outcome of decoding a single message, either its value or the failure, so a message that cannot be
+ * decoded does not terminate the stream and can be handled on its own (i.e: sent to a dead-letter queue)
+ * @param message The received message
+ * @param value The decoded value, null when decoding failed
+ * @param error Why decoding failed, null when it succeeded
+ */
+public record SqsDecoded<T>(Message message, @Nullable T value, @Nullable Throwable error) {
+
+    public boolean isFailure() {
+        return error != null;
+    }
+}
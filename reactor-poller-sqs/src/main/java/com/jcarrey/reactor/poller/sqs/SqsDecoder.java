@@ -0,0 +1,27 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.function.Function;
+
+/**
+ * Decodes the body of a received message into a typed value, i.e: with a JSON mapper, see {@link SqsDecoding}
+ */
+@FunctionalInterface
+public interface SqsDecoder<T> {
+    /**
+     * @param message The received message
+     * @param buffer Reused by the decoding thread for all its messages, i.e: to encode the body as UTF-8 bytes
+     *               for byte based parsers, it must not be kept after decoding
+     * @return The decoded value, must not be null
+     * @throws Exception If the body cannot be decoded, reported as a failed {@link SqsDecoded}
+     */
+    T decode(Message message, SqsDecodeBuffer buffer) throws Exception;
+
+    /**
+     * @return A decoder of the body string, for string based parsers
+     */
+    static <T> SqsDecoder<T> ofBody(Function<String, T> decoder) {
+        return (message, buffer) -> decoder.apply(message.body());
+    }
+}
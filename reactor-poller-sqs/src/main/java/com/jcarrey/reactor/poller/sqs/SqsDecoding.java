@@ -0,0 +1,137 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import lombok.Builder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Decodes the messages of the received responses on a scheduler, up to parallelism responses at a time, instead of
+ * on the thread emitting them, i.e: {@code ReactorPoller.adaptative(poller, options).transform(decoding)}.
+ * Each response is decoded by a single thread, reusing its {@link SqsDecodeBuffer} for all its messages.
+ *
+ * Decoding is backpressured: at most prefetch responses are requested ahead from the poller, which never polls
+ * beyond the demand of downstream, so polling does not outrun decoding. Prefetch is independent of parallelism, so
+ * the poller can scale its concurrency up to it even when few threads decode. Responses received but not decoded
+ * yet are the {@link #backlog()}, and {@link #saturated()} is meant for the saturated option, so concurrency does not
+ * scale up while decoding is the bottleneck: {@code options.toBuilder().saturated(decoding::saturated).build()}.
+ *
+ * Messages are emitted in order when ordered, otherwise as soon as their response is decoded, in order within it.
+ * Failures are emitted as {@link SqsDecoded#isFailure()}, never as errors.
+ */
+public class SqsDecoding<T> implements Function<Flux<ReceiveMessageResponse>, Flux<SqsDecoded<T>>> {
+    private static final ThreadLocal<SqsDecodeBuffer> BUFFERS = ThreadLocal.withInitial(SqsDecodeBuffer::new);
+
+    private final SqsDecoder<T> decoder;
+    private final int parallelism;
+    private final int prefetch;
+    private final boolean ordered;
+    private final Scheduler scheduler;
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    /**
+     * @param decoder Decodes each message
+     * @param parallelism Maximum responses decoded at a time, defaults to the number of cores
+     * @param prefetch Maximum responses requested ahead from the poller, defaults to 4 times the parallelism
+     * @param ordered Whether messages are emitted in the order they were received, defaults to false
+     * @param scheduler Where messages are decoded, defaults to {@link Schedulers#parallel()} as decoding is CPU bound
+     */
+    @Builder
+    public SqsDecoding(
+            SqsDecoder<T> decoder,
+            @Nullable Integer parallelism,
+            @Nullable Integer prefetch,
+            @Nullable Boolean ordered,
+            @Nullable Scheduler scheduler
+    ) {
+        if (decoder == null) {
+            throw new IllegalArgumentException("decoder must not be null");
+        }
+        this.decoder = decoder;
+        this.parallelism = Optional.ofNullable(parallelism).orElse(Runtime.getRuntime().availableProcessors());
+        if (this.parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.prefetch = Optional.ofNullable(prefetch).orElse(this.parallelism * 4);
+        if (this.prefetch < this.parallelism) {
+            throw new IllegalArgumentException("prefetch must be >= parallelism");
+        }
+        this.ordered = Optional.ofNullable(ordered).orElse(false);
+        this.scheduler = Optional.ofNullable(scheduler).orElse(Schedulers.parallel());
+    }
+
+    @Override
+    public Flux<SqsDecoded<T>> apply(Flux<ReceiveMessageResponse> responses) {
+        return Flux.defer(() -> {
+            // Responses of this subscription in the backlog, removed from it when the subscription terminates
+            var pending = new AtomicInteger();
+            Function<ReceiveMessageResponse, Mono<List<SqsDecoded<T>>>> decodeOnScheduler = response ->
+                    Mono.fromCallable(() -> decode(response))
+                            .subscribeOn(scheduler)
+                            .doOnSuccess(__ -> decoded(pending));
+            // Prefetches into a queue on the emitting thread, so the poller sees prefetch as demand
+            var prefetched = responses
+                    .doOnNext(__ -> {
+                        pending.incrementAndGet();
+                        backlog.incrementAndGet();
+                    })
+                    .publishOn(Schedulers.immediate(), prefetch);
+            var decoded = ordered
+                    ? prefetched.flatMapSequential(decodeOnScheduler, parallelism, 1)
+                    : prefetched.flatMap(decodeOnScheduler, parallelism, 1);
+            return decoded
+                    .flatMapIterable(Function.identity())
+                    .doFinally(__ -> backlog.addAndGet(-pending.getAndSet(0)));
+        });
+    }
+
+    /**
+     * @return Responses received but not decoded yet, across all subscriptions
+     */
+    public int backlog() {
+        return backlog.get();
+    }
+
+    /**
+     * @return Whether responses are waiting for a decoding thread, so more concurrent polls would only queue up
+     */
+    public boolean saturated() {
+        return backlog.get() > parallelism;
+    }
+
+    private void decoded(AtomicInteger pending) {
+        // Not removed twice when the subscription terminated in between
+        if (pending.getAndUpdate(current -> Math.max(current - 1, 0)) > 0) {
+            backlog.decrementAndGet();
+        }
+    }
+
+    private List<SqsDecoded<T>> decode(ReceiveMessageResponse response) {
+        if (!response.hasMessages() || response.messages().isEmpty()) {
+            return List.of();
+        }
+        var buffer = BUFFERS.get();
+        var decoded = new ArrayList<SqsDecoded<T>>(response.messages().size());
+        for (var message : response.messages()) {
+            try {
+                var value = decoder.decode(message, buffer);
+                if (value == null) {
+                    throw new IllegalStateException("Decoder returned null for message " + message.messageId());
+                }
+                decoded.add(new SqsDecoded<>(message, value, null));
+            } catch (Exception error) {
+                decoded.add(new SqsDecoded<>(message, null, error));
+            }
+        }
+        return decoded;
+    }
+}
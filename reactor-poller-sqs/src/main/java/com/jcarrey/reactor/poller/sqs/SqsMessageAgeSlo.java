@@ -0,0 +1,197 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyController;
+import com.jcarrey.reactor.poller.core.concurrency.StreamingQuantile;
+import lombok.Builder;
+import reactor.util.annotation.Nullable;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+/**
+ * Scales to keep a quantile (p95 by default) of the age of received messages under a target, instead of
+ * looking at how full receives are. It can be used either as the strategy (trigger) or as the controller.
+ *
+ * The age of a message is ApproximateFirstReceiveTimestamp - SentTimestamp, the time it waited in the queue until
+ * it was first received, which is what more concurrency reduces; redeliveries do not add their visibility timeouts.
+ * When ApproximateFirstReceiveTimestamp is missing, it is the time since it was sent. The receive request must ask
+ * for both attributes, see {@link #withAgeAttributes(ReceiveMessageRequest)}.
+ *
+ * Above target it scales up, proportionally to how far above target the quantile is when used as the controller.
+ * Well under target, or on empty receives, it scales down by a factor, as there is no backlog worth the extra
+ * requests and connections. Changes happen at most once per interval, as every response is a sample.
+ */
+public class SqsMessageAgeSlo implements ConcurrencyControlTrigger<ReceiveMessageResponse>, ConcurrencyController<ReceiveMessageResponse> {
+    public static final String SENT_TIMESTAMP = "SentTimestamp";
+    public static final String APPROXIMATE_FIRST_RECEIVE_TIMESTAMP = "ApproximateFirstReceiveTimestamp";
+
+    /**
+     * The age the quantile must be kept under, in milliseconds
+     */
+    private final double targetMillis;
+    /**
+     * Streaming estimate of the age quantile, in milliseconds
+     */
+    private final StreamingQuantile age;
+    /**
+     * Ages under target * scaleDownRatio are well under target
+     */
+    private final double scaleDownRatio;
+    /**
+     * Concurrency is multiplied by this factor when well under target, as a controller
+     */
+    private final double scaleDownFactor;
+    /**
+     * Minimum time in between two changes
+     */
+    private final long intervalMillis;
+    /**
+     * Source of wall clock time in milliseconds, to compare with the SQS timestamps
+     */
+    private final LongSupplier clock;
+
+    private final AtomicLong lastChangeMillis;
+
+    /**
+     * @param target The age the quantile must be kept under
+     * @param quantile The quantile of the age to track, defaults to 0.95
+     * @param scaleDownRatio The ratio of the target under which it scales down, defaults to 0.5
+     * @param scaleDownFactor The factor concurrency is multiplied by when scaling down as a controller, defaults to 0.5
+     * @param interval Minimum time in between two changes, defaults to 1 second
+     * @param clock Source of wall clock time in milliseconds, defaults to {@link System#currentTimeMillis()}
+     */
+    @Builder
+    public SqsMessageAgeSlo(
+            Duration target,
+            @Nullable Double quantile,
+            @Nullable Double scaleDownRatio,
+            @Nullable Double scaleDownFactor,
+            @Nullable Duration interval,
+            @Nullable LongSupplier clock
+    ) {
+        if (target == null || target.isNegative() || target.isZero()) {
+            throw new IllegalArgumentException("target must be > 0");
+        }
+        this.targetMillis = target.toMillis();
+        this.age = new StreamingQuantile(Optional.ofNullable(quantile).orElse(0.95));
+        this.scaleDownRatio = Optional.ofNullable(scaleDownRatio).orElse(0.5);
+        if (this.scaleDownRatio <= 0d || this.scaleDownRatio >= 1d) {
+            throw new IllegalArgumentException("scaleDownRatio must be in (0, 1)");
+        }
+        this.scaleDownFactor = Optional.ofNullable(scaleDownFactor).orElse(0.5);
+        if (this.scaleDownFactor <= 0d || this.scaleDownFactor >= 1d) {
+            throw new IllegalArgumentException("scaleDownFactor must be in (0, 1)");
+        }
+        this.intervalMillis = Optional.ofNullable(interval).orElse(Duration.ofSeconds(1)).toMillis();
+        this.clock = Optional.ofNullable(clock).orElse(System::currentTimeMillis);
+        this.lastChangeMillis = new AtomicLong(this.clock.getAsLong() - this.intervalMillis);
+    }
+
+    /**
+     * @return The request asking for the attributes needed to calculate the age of the messages, on top of the ones it had
+     */
+    public static ReceiveMessageRequest withAgeAttributes(ReceiveMessageRequest request) {
+        var names = new LinkedHashSet<>(request.attributeNamesAsStrings());
+        names.add(SENT_TIMESTAMP);
+        names.add(APPROXIMATE_FIRST_RECEIVE_TIMESTAMP);
+        return request.toBuilder()
+                .attributeNamesWithStrings(names)
+                .build();
+    }
+
+    @Override
+    public ConcurrencyControlOperation calculate(ReceiveMessageResponse response) {
+        var operation = record(response);
+        if (operation == Noop || !tryChange()) {
+            return Noop;
+        }
+        return operation;
+    }
+
+    @Override
+    public double calculate(double currentConcurrency, double minConcurrency, double maxConcurrency, ReceiveMessageResponse response) {
+        var operation = record(response);
+        if (operation == Noop || !tryChange()) {
+            return currentConcurrency;
+        }
+        var next = operation == ScaleUp
+                // Twice as old as the target means twice the concurrency, at least one more
+                ? Math.max(currentConcurrency + 1, currentConcurrency * Math.min(2d, ageQuantile() / targetMillis))
+                : currentConcurrency * scaleDownFactor;
+        return Math.min(Math.max(next, minConcurrency), maxConcurrency);
+    }
+
+    /**
+     * @return The estimated age quantile in milliseconds, or NaN before any message was received
+     */
+    public double ageQuantile() {
+        return age.estimate();
+    }
+
+    private ConcurrencyControlOperation record(ReceiveMessageResponse response) {
+        if (!response.hasMessages() || response.messages().isEmpty()) {
+            return ScaleDown;
+        }
+        var now = clock.getAsLong();
+        for (var message : response.messages()) {
+            var messageAge = ageMillis(message, now);
+            if (messageAge >= 0) {
+                age.add(messageAge);
+            }
+        }
+
+        var quantile = age.estimate();
+        if (Double.isNaN(quantile)) {
+            return Noop;
+        }
+        if (quantile > targetMillis) {
+            return ScaleUp;
+        }
+        if (quantile < targetMillis * scaleDownRatio) {
+            return ScaleDown;
+        }
+        return Noop;
+    }
+
+    private boolean tryChange() {
+        var now = clock.getAsLong();
+        var last = lastChangeMillis.get();
+        return now - last >= intervalMillis && lastChangeMillis.compareAndSet(last, now);
+    }
+
+    /**
+     * @return The age of the message in milliseconds, or -1 when the request did not ask for SentTimestamp
+     */
+    static long ageMillis(Message message, long now) {
+        var attributes = message.attributesAsStrings();
+        var sent = parse(attributes.get(SENT_TIMESTAMP));
+        if (sent < 0) {
+            return -1;
+        }
+        var firstReceive = parse(attributes.get(APPROXIMATE_FIRST_RECEIVE_TIMESTAMP));
+        return Math.max(0, (firstReceive < 0 ? now : firstReceive) - sent);
+    }
+
+    private static long parse(@Nullable String timestamp) {
+        if (timestamp == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(timestamp);
+        } catch (NumberFormatException invalid) {
+            return -1;
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.jcarrey.reactor.poller.sqs;
 
 import com.jcarrey.reactor.poller.core.Poller;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
 import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
@@ -10,16 +12,36 @@ import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 public class SqsPoller implements Poller<ReceiveMessageResponse> {
     private final SqsAsyncClient client;
     private final ReceiveMessageRequest request;
+    @Nullable
+    private final Scheduler scheduler;
 
+    /**
+     * Polls SQS, moving responses away from the SDK threads into {@link Schedulers#parallel()}
+     */
     public SqsPoller(SqsAsyncClient client, ReceiveMessageRequest request) {
+        this(client, request, Schedulers.parallel());
+    }
+
+    /**
+     * Polls SQS, moving responses away from the SDK threads into the scheduler
+     * @param scheduler The scheduler to publish responses on, or null to publish them on the SDK completion thread
+     *                  with no thread hops, i.e: when the emission thread is chosen with
+     *                  {@link com.jcarrey.reactor.poller.core.ConcurrencyControlOptions#getEmission()}
+     */
+    public SqsPoller(SqsAsyncClient client, ReceiveMessageRequest request, @Nullable Scheduler scheduler) {
         this.client = client;
         this.request = request;
+        this.scheduler = scheduler;
     }
 
     @Override
     public Mono<ReceiveMessageResponse> poll() {
-        return Mono.fromFuture(client.receiveMessage(request))
-                .publishOn(Schedulers.parallel())
-                .subscribeOn(Schedulers.parallel());
+        var response = Mono.fromFuture(client.receiveMessage(request));
+        if (scheduler == null) {
+            return response;
+        }
+        return response
+                .publishOn(scheduler)
+                .subscribeOn(scheduler);
     }
 }
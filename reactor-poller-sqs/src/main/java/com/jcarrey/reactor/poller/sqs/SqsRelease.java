@@ -0,0 +1,56 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Release callbacks for {@link com.jcarrey.reactor.poller.core.ConcurrencyControlOptions#getRelease()}, handling
+ * the messages received but not emitted on cancel or while draining.
+ */
+@Slf4j
+public class SqsRelease {
+    private static final int MAX_BATCH_ENTRIES = 10;
+
+    /**
+     * @return A release callback making the messages visible again right away, with a ChangeMessageVisibilityBatch to 0,
+     *  so they are redelivered to other consumers instead of waiting for their visibility timeout. It does not wait
+     *  for SQS to answer, failures are only logged as the messages become visible anyway.
+     */
+    public static Consumer<ReceiveMessageResponse> resetVisibility(SqsAsyncClient client, String queueUrl) {
+        return response -> {
+            if (!response.hasMessages() || response.messages().isEmpty()) {
+                return;
+            }
+            var messages = response.messages();
+            for (int from = 0; from < messages.size(); from += MAX_BATCH_ENTRIES) {
+                var entries = new ArrayList<ChangeMessageVisibilityBatchRequestEntry>(MAX_BATCH_ENTRIES);
+                for (int i = from; i < Math.min(from + MAX_BATCH_ENTRIES, messages.size()); i++) {
+                    entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                            .id(String.valueOf(i))
+                            .receiptHandle(messages.get(i).receiptHandle())
+                            .visibilityTimeout(0)
+                            .build());
+                }
+                var request = ChangeMessageVisibilityBatchRequest.builder()
+                        .queueUrl(queueUrl)
+                        .entries(entries)
+                        .build();
+                client.changeMessageVisibilityBatch(request).whenComplete((result, error) -> {
+                    if (error != null) {
+                        log.warn("Could not release {} messages.", entries.size(), error);
+                    } else if (result.hasFailed() && !result.failed().isEmpty()) {
+                        log.warn("Could not release {} messages: {}", result.failed().size(), result.failed());
+                    }
+                });
+            }
+        };
+    }
+
+    private SqsRelease() {}
+}
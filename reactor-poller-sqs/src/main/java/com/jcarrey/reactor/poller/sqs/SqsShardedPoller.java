@@ -0,0 +1,191 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import com.jcarrey.reactor.poller.core.AsyncPoller;
+import com.jcarrey.reactor.poller.core.PollCallback;
+import lombok.Builder;
+import reactor.util.annotation.Nullable;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.BiConsumer;
+
+/**
+ * Spreads receives across several clients, each one with its own connection pool, so a single pool is not the
+ * bottleneck at high concurrency. Each receive goes to the client with the fewest outstanding receives.
+ *
+ * Outstanding receives over the capacity of the pools is the saturation. Past the saturation threshold new receives
+ * mostly wait to acquire a connection, and that wait looks like a slow queue to strategies and controllers, so
+ * {@link #saturated()} is meant for the saturated option, which stops scale-ups while it is true:
+ * {@code options.toBuilder().saturated(poller::saturated).build()}.
+ */
+public class SqsShardedPoller implements AsyncPoller<ReceiveMessageResponse> {
+    private final SqsAsyncClient[] clients;
+    private final AtomicInteger[] outstanding;
+    private final ReceiveMessageRequest request;
+    private final int capacity;
+    private final double saturationThreshold;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final AtomicInteger totalOutstanding = new AtomicInteger();
+    private final Completion[] completions;
+    private final AtomicInteger nextCompletion = new AtomicInteger();
+
+    /**
+     * @param clients The clients, each one with its own connection pool
+     * @param request The receive request, sent through any of the clients
+     * @param maxConcurrencyPerClient The maximum concurrency of the connection pool of each client,
+     *                                i.e: NettyNioAsyncHttpClient maxConcurrency, defaults to its default of 50
+     * @param saturationThreshold Ratio of outstanding receives over the total capacity of the pools from which
+     *                            they are saturated, defaults to 0.9
+     */
+    @Builder
+    public SqsShardedPoller(
+            List<SqsAsyncClient> clients,
+            ReceiveMessageRequest request,
+            @Nullable Integer maxConcurrencyPerClient,
+            @Nullable Double saturationThreshold
+    ) {
+        if (clients == null || clients.isEmpty() || request == null) {
+            throw new IllegalArgumentException("clients must not be empty and request must not be null");
+        }
+        this.clients = clients.toArray(SqsAsyncClient[]::new);
+        this.outstanding = new AtomicInteger[this.clients.length];
+        for (int i = 0; i < outstanding.length; i++) {
+            outstanding[i] = new AtomicInteger();
+        }
+        this.request = request;
+        var perClient = Optional.ofNullable(maxConcurrencyPerClient).orElse(50);
+        if (perClient < 1) {
+            throw new IllegalArgumentException("maxConcurrencyPerClient must be >= 1");
+        }
+        this.capacity = perClient * this.clients.length;
+        this.saturationThreshold = Optional.ofNullable(saturationThreshold).orElse(0.9);
+        if (this.saturationThreshold <= 0d || this.saturationThreshold > 1d) {
+            throw new IllegalArgumentException("saturationThreshold must be in (0, 1]");
+        }
+        this.completions = new Completion[capacity];
+        for (int i = 0; i < completions.length; i++) {
+            completions[i] = new Completion(this);
+        }
+    }
+
+    @Override
+    public void poll(PollCallback<ReceiveMessageResponse> callback) {
+        var shard = leastOutstanding();
+        outstanding[shard].incrementAndGet();
+        totalOutstanding.incrementAndGet();
+        var completion = acquireCompletion();
+        completion.shard = shard;
+        completion.callback = callback;
+        try {
+            clients[shard].receiveMessage(request).whenComplete(completion);
+        } catch (RuntimeException error) {
+            completion.recycle();
+            release(shard);
+            throw error;
+        }
+    }
+
+    /**
+     * Takes an idle completion, scanning from a rotating start. Only when all of them are in use, which means the
+     * pools are over capacity, a new one is allocated for this receive.
+     */
+    private Completion acquireCompletion() {
+        var start = Math.floorMod(nextCompletion.getAndIncrement(), completions.length);
+        for (int i = 0; i < completions.length; i++) {
+            var completion = completions[(start + i) % completions.length];
+            if (completion.acquire()) {
+                return completion;
+            }
+        }
+        var completion = new Completion(this);
+        completion.acquire();
+        return completion;
+    }
+
+    /**
+     * Scans from a rotating start, so ties are spread across clients
+     */
+    private int leastOutstanding() {
+        var start = Math.floorMod(nextShard.getAndIncrement(), clients.length);
+        var best = start;
+        var bestOutstanding = outstanding[start].get();
+        for (int i = 1; i < clients.length && bestOutstanding > 0; i++) {
+            var shard = (start + i) % clients.length;
+            var current = outstanding[shard].get();
+            if (current < bestOutstanding) {
+                best = shard;
+                bestOutstanding = current;
+            }
+        }
+        return best;
+    }
+
+    private void release(int shard) {
+        outstanding[shard].decrementAndGet();
+        totalOutstanding.decrementAndGet();
+    }
+
+    /**
+     * @return Outstanding receives over the total capacity of the connection pools
+     */
+    public double saturation() {
+        return totalOutstanding.get() / (double) capacity;
+    }
+
+    /**
+     * @return Whether the saturation reached the threshold, so more concurrency would wait for connections
+     */
+    public boolean saturated() {
+        return saturation() >= saturationThreshold;
+    }
+
+    /**
+     * @return Outstanding receives of the given client
+     */
+    public int outstanding(int shard) {
+        return outstanding[shard].get();
+    }
+
+    /**
+     * Completes a receive, reused across receives as {@link SqsAsyncPoller} reuses the poller callback,
+     * so no handler is allocated per receive
+     */
+    private static final class Completion implements BiConsumer<ReceiveMessageResponse, Throwable> {
+        private static final AtomicIntegerFieldUpdater<Completion> BUSY =
+                AtomicIntegerFieldUpdater.newUpdater(Completion.class, "busy");
+
+        private final SqsShardedPoller poller;
+        private volatile int busy;
+        private int shard;
+        @Nullable
+        private PollCallback<ReceiveMessageResponse> callback;
+
+        Completion(SqsShardedPoller poller) {
+            this.poller = poller;
+        }
+
+        boolean acquire() {
+            return busy == 0 && BUSY.compareAndSet(this, 0, 1);
+        }
+
+        void recycle() {
+            callback = null;
+            busy = 0;
+        }
+
+        @Override
+        public void accept(@Nullable ReceiveMessageResponse response, @Nullable Throwable error) {
+            var completed = shard;
+            var target = callback;
+            recycle();
+            // Released before the callback, so the strategy adapting to this response sees the current saturation
+            poller.release(completed);
+            target.accept(response, error);
+        }
+    }
+}
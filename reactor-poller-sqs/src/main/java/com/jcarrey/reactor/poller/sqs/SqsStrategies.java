@@ -1,8 +1,14 @@
 package com.jcarrey.reactor.poller.sqs;
 
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTrigger;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlTriggers;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyController;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
 
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
 public class SqsStrategies {
 
     /**
@@ -14,4 +20,64 @@ public class SqsStrategies {
     public static ConcurrencyControlTrigger<ReceiveMessageResponse> thresholdScaleUp(int scaleUpThreshold) {
         return new SqsThresholdConcurrencyControl(scaleUpThreshold);
     }
+
+    /**
+     * {@link com.jcarrey.reactor.poller.core.concurrency.WindowedConcurrencyControlTrigger}
+     * @param alpha - Weight of each response in the moving average of messages per response, in (0, 1].
+     * @param scaleUpThreshold - Average number of messages per response to trigger a scale-up event.
+     * @param scaleDownThreshold - Average number of messages per response to trigger a scale-down event.
+     * @param cooldown - Minimum time in between two scale events.
+     * @return A ConcurrencyControl that will trigger scale ups and downs based on the moving average of messages
+     *  per response, errors count as empty responses.
+     */
+    public static ConcurrencyControlTrigger<ReceiveMessageResponse> windowedThreshold(
+            double alpha,
+            double scaleUpThreshold,
+            double scaleDownThreshold,
+            Duration cooldown
+    ) {
+        return ConcurrencyControlTriggers.windowed(SqsStrategies::messageCount, alpha, scaleUpThreshold, scaleDownThreshold, cooldown);
+    }
+
+    /**
+     * Measurement to be used with {@link com.jcarrey.reactor.poller.core.concurrency.PidConcurrencyController}
+     * to target a ratio of full batches, i.e: setpoint 0.8 for 8 out of 10 messages per receive.
+     * @param maxNumberOfMessages - The maxNumberOfMessages of the receive request.
+     * @return The ratio of messages received over maxNumberOfMessages, 0 for errors.
+     */
+    public static ToDoubleFunction<ReceiveMessageResponse> batchFillRatio(int maxNumberOfMessages) {
+        if (maxNumberOfMessages < 1) {
+            throw new IllegalArgumentException("maxNumberOfMessages must be >= 1");
+        }
+        return response -> messageCount(response) / maxNumberOfMessages;
+    }
+
+    /**
+     * {@link SqsMessageAgeSlo} as a trigger, the receive request must ask for the age attributes,
+     * see {@link SqsMessageAgeSlo#withAgeAttributes(ReceiveMessageRequest)}
+     * @param target - The p95 age of the messages must be kept under this target.
+     * @return A ConcurrencyControl that will trigger scale ups while the p95 age is over target, and scale downs while it is
+     *  under half the target or receives are empty, at most once per second.
+     */
+    public static ConcurrencyControlTrigger<ReceiveMessageResponse> messageAgeTrigger(Duration target) {
+        return SqsMessageAgeSlo.builder().target(target).build();
+    }
+
+    /**
+     * {@link SqsMessageAgeSlo} as a controller, the receive request must ask for the age attributes,
+     * see {@link SqsMessageAgeSlo#withAgeAttributes(ReceiveMessageRequest)}
+     * @param target - The p95 age of the messages must be kept under this target.
+     * @return A controller that scales up proportionally to how far over target the p95 age is, and halves concurrency
+     *  while it is under half the target or receives are empty, at most once per second.
+     */
+    public static ConcurrencyController<ReceiveMessageResponse> messageAgeController(Duration target) {
+        return SqsMessageAgeSlo.builder().target(target).build();
+    }
+
+    private static double messageCount(ReceiveMessageResponse response) {
+        if (!response.sdkHttpResponse().isSuccessful()) {
+            return 0d;
+        }
+        return response.messages().size();
+    }
 }
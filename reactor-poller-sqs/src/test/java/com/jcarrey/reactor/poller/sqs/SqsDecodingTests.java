@@ -0,0 +1,215 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import com.jcarrey.reactor.poller.core.AsyncPoller;
+import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
+import com.jcarrey.reactor.poller.core.PollCallback;
+import com.jcarrey.reactor.poller.core.ReactorPoller;
+import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Slf4j
+public class SqsDecodingTests {
+
+    @Test
+    public void orderedDecodingKeepsReceiveOrder() {
+        var decoding = SqsDecoding.<Integer>builder()
+                .decoder(SqsDecoder.ofBody(body -> {
+                    // Uneven decode times, so responses finish out of order
+                    sleep(ThreadLocalRandom.current().nextInt(3));
+                    return Integer.parseInt(body);
+                }))
+                .parallelism(4)
+                .ordered(true)
+                .build();
+
+        var decoded = responses(20)
+                .transform(decoding)
+                .map(SqsDecoded::value)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        Assertions.assertEquals(IntStream.range(0, 200).boxed().collect(Collectors.toList()), decoded);
+    }
+
+    @Test
+    public void failuresAreSignalsNotErrors() {
+        var decoding = SqsDecoding.<Integer>builder()
+                .decoder(SqsDecoder.ofBody(Integer::parseInt))
+                .build();
+        var response = ReceiveMessageResponse.builder()
+                .messages(message("1"), message("not a number"), message("3"))
+                .build();
+
+        var decoded = Flux.just(response)
+                .transform(decoding)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(3, decoded.size());
+        Assertions.assertEquals(1, decoded.get(0).value());
+        Assertions.assertTrue(decoded.get(1).isFailure());
+        Assertions.assertTrue(decoded.get(1).error() instanceof NumberFormatException);
+        Assertions.assertEquals("not a number", decoded.get(1).message().body());
+        Assertions.assertEquals(3, decoded.get(2).value());
+    }
+
+    @Test
+    public void buffersAreReusedPerThread() {
+        Set<Object> buffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        var decoding = SqsDecoding.<String>builder()
+                .decoder((message, buffer) -> {
+                    buffers.add(buffer);
+                    var bytes = buffer.utf8(message.body());
+                    return new String(bytes.array(), 0, bytes.limit(), StandardCharsets.UTF_8);
+                })
+                .scheduler(Schedulers.single())
+                .build();
+
+        var decoded = responses(10)
+                .map(response -> response.toBuilder()
+                        .messages(message("\u00f1and\u00fa \u20ac" + response.messages().get(0).body()))
+                        .build())
+                .transform(decoding)
+                .map(SqsDecoded::value)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        Assertions.assertEquals(1, buffers.size());
+        Assertions.assertEquals("\u00f1and\u00fa \u20ac0", decoded.get(0));
+    }
+
+    @Test
+    public void slowDecodingBackpressuresPolling() throws InterruptedException {
+        var poller = new StubPoller();
+        var scaleUps = new AtomicInteger();
+        var decoding = new CountDownLatch(2);
+        var release = new CountDownLatch(1);
+        var decoder = SqsDecoding.<Integer>builder()
+                .decoder(SqsDecoder.ofBody(body -> {
+                    decoding.countDown();
+                    await(release);
+                    return Integer.parseInt(body);
+                }))
+                .parallelism(2)
+                .prefetch(8)
+                .scheduler(Schedulers.boundedElastic())
+                .build();
+
+        var requested = new AtomicLong();
+        var subscription = ReactorPoller.adaptative(poller, options(scaleUps, decoder))
+                .doOnRequest(n -> requested.getAndAccumulate(n, Operators::addCap))
+                .transform(decoder)
+                .subscribe();
+        try {
+            Assertions.assertTrue(decoding.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            var polls = poller.polls.get();
+            Thread.sleep(100);
+            // Prefetch is requested regardless of the parallelism, so concurrency is not capped by it
+            Assertions.assertEquals(8, requested.get());
+            // No more polls are issued while decoding is blocked, polls in flight when the demand was met are buffered
+            Assertions.assertEquals(polls, poller.polls.get());
+            Assertions.assertEquals(0, poller.inFlight.get());
+            Assertions.assertTrue(polls <= 8 + poller.maxInFlight.get(), "Polled " + polls);
+            Assertions.assertEquals(8, decoder.backlog());
+            Assertions.assertTrue(decoder.saturated());
+            // Concurrency scaled past the parallelism, and stopped once responses waited for a decoding thread
+            Assertions.assertTrue(scaleUps.get() >= 2 && scaleUps.get() < 8, "Scaled up " + scaleUps.get() + " times");
+            Assertions.assertTrue(poller.maxInFlight.get() < 8, "In flight " + poller.maxInFlight.get());
+        } finally {
+            release.countDown();
+            subscription.dispose();
+        }
+        Thread.sleep(50);
+        Assertions.assertEquals(0, decoder.backlog());
+    }
+
+    private static ConcurrencyControlOptions<ReceiveMessageResponse> options(AtomicInteger scaleUps, SqsDecoding<?> decoding) {
+        return ConcurrencyControlOptions.<ReceiveMessageResponse>builder()
+                .initialConcurrency(1)
+                .minConcurrency(1)
+                .maxConcurrency(16)
+                .strategy(__ -> ConcurrencyControlOperation.ScaleUp)
+                .scaleUpFn((current, operation) -> {
+                    scaleUps.incrementAndGet();
+                    return 1d;
+                })
+                .saturated(decoding::saturated)
+                .build();
+    }
+
+    /**
+     * Completes each receive after a millisecond with 10 messages, tracking the receives in flight
+     */
+    private static final class StubPoller implements AsyncPoller<ReceiveMessageResponse> {
+        private final AtomicInteger polls = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public void poll(PollCallback<ReceiveMessageResponse> callback) {
+            var response = polls.getAndIncrement();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return response(response);
+            }, CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS)).whenComplete(callback);
+        }
+    }
+
+    private static Flux<ReceiveMessageResponse> responses(int count) {
+        return Flux.range(0, count).map(SqsDecodingTests::response);
+    }
+
+    private static ReceiveMessageResponse response(int response) {
+        return ReceiveMessageResponse.builder()
+                .messages(IntStream.range(0, 10)
+                        .mapToObj(i -> message(String.valueOf(response * 10 + i)))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static Message message(String body) {
+        return Message.builder()
+                .messageId(body)
+                .body(body)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.Noop;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleDown;
+import static com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlOperation.ScaleUp;
+
+@Slf4j
+public class SqsMessageAgeSloTests {
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @Test
+    public void requestsAgeAttributes() {
+        var request = SqsMessageAgeSlo.withAgeAttributes(ReceiveMessageRequest.builder()
+                .queueUrl("queue")
+                .attributeNamesWithStrings("MessageGroupId")
+                .build());
+
+        Assertions.assertEquals(3, request.attributeNamesAsStrings().size());
+        Assertions.assertTrue(request.attributeNamesAsStrings().contains(SqsMessageAgeSlo.SENT_TIMESTAMP));
+        Assertions.assertTrue(request.attributeNamesAsStrings().contains(SqsMessageAgeSlo.APPROXIMATE_FIRST_RECEIVE_TIMESTAMP));
+    }
+
+    @Test
+    public void ageIsTimeUntilFirstReceive() {
+        var firstReceive = message(Map.of(
+                SqsMessageAgeSlo.SENT_TIMESTAMP, "1000",
+                SqsMessageAgeSlo.APPROXIMATE_FIRST_RECEIVE_TIMESTAMP, "1500"));
+        var sentOnly = message(Map.of(SqsMessageAgeSlo.SENT_TIMESTAMP, "1000"));
+
+        Assertions.assertEquals(500, SqsMessageAgeSlo.ageMillis(firstReceive, 5000));
+        Assertions.assertEquals(4000, SqsMessageAgeSlo.ageMillis(sentOnly, 5000));
+        Assertions.assertEquals(-1, SqsMessageAgeSlo.ageMillis(message(Map.of()), 5000));
+    }
+
+    @Test
+    public void scalesUpWhenAgeIsOverTarget() {
+        var slo = slo();
+        Assertions.assertEquals(ScaleUp, slo.calculate(response(5000)));
+        // Once per interval
+        Assertions.assertEquals(Noop, slo.calculate(response(5000)));
+
+        clock.addAndGet(1000);
+        Assertions.assertEquals(20d, slo.calculate(10, 1, 100, response(5000)));
+    }
+
+    @Test
+    public void scalesDownAggressivelyWellUnderTarget() {
+        var slo = slo();
+        Assertions.assertEquals(5d, slo.calculate(10, 1, 100, response(100)));
+        clock.addAndGet(1000);
+        Assertions.assertEquals(ScaleDown, slo.calculate(ReceiveMessageResponse.builder().build()));
+    }
+
+    @Test
+    public void keepsConcurrencyAroundTarget() {
+        var slo = slo();
+        Assertions.assertEquals(10d, slo.calculate(10, 1, 100, response(800)));
+    }
+
+    private SqsMessageAgeSlo slo() {
+        return SqsMessageAgeSlo.builder()
+                .target(Duration.ofSeconds(1))
+                .clock(clock::get)
+                .build();
+    }
+
+    private ReceiveMessageResponse response(long ageMillis) {
+        var sent = clock.get() - ageMillis;
+        return ReceiveMessageResponse.builder()
+                .messages(IntStream.range(0, 10)
+                        .mapToObj(i -> message(Map.of(
+                                SqsMessageAgeSlo.SENT_TIMESTAMP, String.valueOf(sent),
+                                SqsMessageAgeSlo.APPROXIMATE_FIRST_RECEIVE_TIMESTAMP, String.valueOf(clock.get()))))
+                        .toList())
+                .build();
+    }
+
+    private static Message message(Map<String, String> attributes) {
+        return Message.builder()
+                .messageId("id")
+                .attributesWithStrings(attributes)
+                .build();
+    }
+}
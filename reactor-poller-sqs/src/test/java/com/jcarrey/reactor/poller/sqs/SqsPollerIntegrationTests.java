@@ -4,9 +4,11 @@ import com.jcarrey.reactor.poller.core.ConcurrencyControlOptions;
 import com.jcarrey.reactor.poller.core.ReactorPoller;
 import com.jcarrey.reactor.poller.core.concurrency.ConcurrencyControlFunctions;
 import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
@@ -34,6 +36,7 @@ public class SqsPollerIntegrationTests {
 
     @BeforeAll
     public static void setUpInfra() {
+        Assumptions.assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "LocalStack requires Docker");
         var localStack = AwsInfra.createLocalStack();
         client = AwsInfra.createSqsClient(localStack);
     }
@@ -0,0 +1,74 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@Slf4j
+public class SqsReleaseTests {
+    private final SqsAsyncClient client = Mockito.mock(SqsAsyncClient.class);
+
+    @Test
+    public void resetsVisibilityInBatchesOfTen() {
+        Mockito.when(client.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(ChangeMessageVisibilityBatchResponse.builder().build()));
+
+        SqsRelease.resetVisibility(client, "queue").accept(response(25));
+
+        var requests = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        Mockito.verify(client, Mockito.times(3)).changeMessageVisibilityBatch(requests.capture());
+        Assertions.assertEquals(List.of(10, 10, 5), requests.getAllValues().stream()
+                .map(request -> request.entries().size())
+                .collect(Collectors.toList()));
+        var entries = requests.getAllValues().stream()
+                .peek(request -> Assertions.assertEquals("queue", request.queueUrl()))
+                .flatMap(request -> request.entries().stream())
+                .collect(Collectors.toList());
+        Assertions.assertTrue(entries.stream().allMatch(entry -> entry.visibilityTimeout() == 0));
+        Assertions.assertEquals(IntStream.range(0, 25).mapToObj(i -> "receipt-" + i).collect(Collectors.toList()),
+                entries.stream().map(ChangeMessageVisibilityBatchRequestEntry::receiptHandle).collect(Collectors.toList()));
+        Assertions.assertEquals(25, entries.stream().map(ChangeMessageVisibilityBatchRequestEntry::id).distinct().count());
+    }
+
+    @Test
+    public void ignoresEmptyResponses() {
+        var release = SqsRelease.resetVisibility(client, "queue");
+
+        release.accept(ReceiveMessageResponse.builder().build());
+        release.accept(response(0));
+
+        Mockito.verifyNoInteractions(client);
+    }
+
+    @Test
+    public void doesNotThrowWhenTheReleaseFails() {
+        Mockito.when(client.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Unavailable")));
+
+        Assertions.assertDoesNotThrow(() -> SqsRelease.resetVisibility(client, "queue").accept(response(3)));
+        Mockito.verify(client).changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class));
+    }
+
+    private static ReceiveMessageResponse response(int messages) {
+        return ReceiveMessageResponse.builder()
+                .messages(IntStream.range(0, messages)
+                        .mapToObj(i -> Message.builder().messageId("message-" + i).receiptHandle("receipt-" + i).build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
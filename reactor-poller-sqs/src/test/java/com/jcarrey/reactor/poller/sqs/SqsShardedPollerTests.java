@@ -0,0 +1,174 @@
+package com.jcarrey.reactor.poller.sqs;
+
+import com.jcarrey.reactor.poller.core.PollCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+
+@Slf4j
+public class SqsShardedPollerTests {
+    private final ReceiveMessageRequest request = ReceiveMessageRequest.builder().queueUrl("queue").build();
+    private final List<Queue<CompletableFuture<ReceiveMessageResponse>>> receives = new ArrayList<>();
+
+    @Test
+    public void routesToLeastOutstandingClient() {
+        var poller = SqsShardedPoller.builder()
+                .clients(clients(3))
+                .request(request)
+                .build();
+
+        IntStream.range(0, 6).forEach(i -> poller.poll(callback()));
+        Assertions.assertEquals(List.of(2, 2, 2), outstanding(poller, 3));
+
+        receives.get(1).poll().complete(ReceiveMessageResponse.builder().build());
+        poller.poll(callback());
+
+        Assertions.assertEquals(List.of(2, 2, 2), outstanding(poller, 3));
+        Assertions.assertEquals(2, receives.get(1).size());
+    }
+
+    @Test
+    public void saturatesWhenPoolsAreBusy() {
+        var poller = SqsShardedPoller.builder()
+                .clients(clients(2))
+                .request(request)
+                .maxConcurrencyPerClient(2)
+                .saturationThreshold(1d)
+                .build();
+
+        IntStream.range(0, 3).forEach(i -> poller.poll(callback()));
+        Assertions.assertFalse(poller.saturated());
+        Assertions.assertEquals(0.75, poller.saturation());
+
+        var seenByCallback = new ArrayList<Boolean>();
+        poller.poll(new PollCallback<>() {
+            @Override
+            public void complete(ReceiveMessageResponse value) {
+                seenByCallback.add(poller.saturated());
+            }
+
+            @Override
+            public void fail(Throwable error) {
+            }
+        });
+        Assertions.assertTrue(poller.saturated());
+
+        // The 4th receive went to the second client, its connection is released before the callback adapts concurrency
+        receives.get(1).stream().reduce((first, second) -> second).orElseThrow()
+                .complete(ReceiveMessageResponse.builder().build());
+
+        Assertions.assertEquals(List.of(false), seenByCallback);
+    }
+
+    @Test
+    public void reusesCompletionsAcrossReceives() {
+        var handlers = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        var pending = new ArrayList<CompletableFuture<ReceiveMessageResponse>>();
+        var client = Mockito.mock(SqsAsyncClient.class);
+        Mockito.when(client.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+            var receive = new CompletableFuture<ReceiveMessageResponse>() {
+                @Override
+                public CompletableFuture<ReceiveMessageResponse> whenComplete(
+                        BiConsumer<? super ReceiveMessageResponse, ? super Throwable> action) {
+                    handlers.add(action);
+                    return super.whenComplete(action);
+                }
+            };
+            pending.add(receive);
+            return receive;
+        });
+        var poller = SqsShardedPoller.builder()
+                .clients(List.of(client))
+                .request(request)
+                .maxConcurrencyPerClient(2)
+                .build();
+        var completed = new AtomicInteger();
+        PollCallback<ReceiveMessageResponse> callback = new PollCallback<>() {
+            @Override
+            public void complete(ReceiveMessageResponse value) {
+                completed.incrementAndGet();
+            }
+
+            @Override
+            public void fail(Throwable error) {
+            }
+        };
+
+        for (int i = 0; i < 100; i++) {
+            poller.poll(callback);
+            pending.remove(0).complete(ReceiveMessageResponse.builder().build());
+        }
+        Assertions.assertTrue(handlers.size() <= 2, "Handlers were " + handlers.size());
+
+        // Over the capacity of the pools receives still complete
+        IntStream.range(0, 3).forEach(i -> poller.poll(callback));
+        pending.forEach(receive -> receive.complete(ReceiveMessageResponse.builder().build()));
+        Assertions.assertEquals(103, completed.get());
+        Assertions.assertEquals(0, poller.outstanding(0));
+    }
+
+    @Test
+    public void validatesArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SqsShardedPoller.builder()
+                .clients(List.of())
+                .request(request)
+                .build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> SqsShardedPoller.builder()
+                .clients(clients(1))
+                .request(request)
+                .saturationThreshold(1.5)
+                .build());
+    }
+
+    private List<SqsAsyncClient> clients(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    var pending = new ConcurrentLinkedQueue<CompletableFuture<ReceiveMessageResponse>>();
+                    receives.add(pending);
+                    var client = Mockito.mock(SqsAsyncClient.class);
+                    Mockito.when(client.receiveMessage(any(ReceiveMessageRequest.class))).thenAnswer(invocation -> {
+                        var receive = new CompletableFuture<ReceiveMessageResponse>();
+                        pending.add(receive);
+                        return receive;
+                    });
+                    return client;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<Integer> outstanding(SqsShardedPoller poller, int clients) {
+        return IntStream.range(0, clients)
+                .mapToObj(poller::outstanding)
+                .collect(Collectors.toList());
+    }
+
+    private static PollCallback<ReceiveMessageResponse> callback() {
+        return new PollCallback<>() {
+            @Override
+            public void complete(ReceiveMessageResponse value) {
+            }
+
+            @Override
+            public void fail(Throwable error) {
+            }
+        };
+    }
+}